@@ -0,0 +1,33 @@
+package com.example.backend.config;
+
+import com.example.backend.utility.TimeSlots;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Encodes slot_mask for availability rows saved before the column existed; rows with a slot off
+// the grid keep a null mask and are checked against their text
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class AvailabilitySlotMaskMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, time_slots FROM provider_availability WHERE slot_mask IS NULL", rs -> {
+            Long mask = TimeSlots.encode(rs.getString("time_slots"));
+            if (mask != null) updates.add(new Object[]{mask, rs.getLong("id")});
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE provider_availability SET slot_mask = ? WHERE id = ?", updates);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Schema pieces ddl-auto cannot express; runs once Hibernate has created or updated the tables
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class BookingSchemaMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        // the old full unique constraint kept cancelled bookings holding their slot
+        List<String> constraints = jdbcTemplate.queryForList("""
+                SELECT conname FROM pg_constraint
+                WHERE conrelid = 'bookings'::regclass AND contype = 'u'
+                  AND pg_get_constraintdef(oid) LIKE '%(provider_id, booking_date, time_slot)%'
+                """, String.class);
+        for (String name : constraints) {
+            jdbcTemplate.execute("ALTER TABLE bookings DROP CONSTRAINT \"" + name + "\"");
+        }
+
+        jdbcTemplate.execute("""
+                CREATE UNIQUE INDEX IF NOT EXISTS uq_bookings_live_slot
+                ON bookings (provider_id, booking_date, time_slot)
+                WHERE status <> 'CANCELLED'
+                """);
+    }
+}
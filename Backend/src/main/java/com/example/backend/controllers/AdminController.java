@@ -1,6 +1,8 @@
 package com.example.backend.controllers;
 
 import com.example.backend.dto.AnalyticsResponse;
+import com.example.backend.dto.AvailabilityCacheStats;
+import com.example.backend.dto.SearchCacheStats;
 import com.example.backend.dto.UserAdminResponse;
 import com.example.backend.dto.UserResponse;
 import com.example.backend.entity.Listing;
@@ -8,6 +10,8 @@ import com.example.backend.entity.ServiceCategory;
 import com.example.backend.entity.User;
 import com.example.backend.services.AdminService;
 import com.example.backend.services.AnalyticsService;
+import com.example.backend.services.ProviderAvailabilityService;
+import com.example.backend.services.SearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +25,8 @@ public class AdminController {
 
     private final AdminService adminService;
     private final AnalyticsService analyticsService;
+    private final SearchService searchService;
+    private final ProviderAvailabilityService providerAvailabilityService;
 
     @PostMapping("/listings/{listingId}/approve")
     public ResponseEntity<Listing> approve(@PathVariable Long listingId,
@@ -62,6 +68,16 @@ public class AdminController {
         return ResponseEntity.ok(analyticsService.getTopServices());
     }
 
+    @GetMapping("/analytics/search-cache")
+    public ResponseEntity<SearchCacheStats> searchCacheStats() {
+        return ResponseEntity.ok(searchService.getCacheStats());
+    }
+
+    @GetMapping("/analytics/availability-cache")
+    public ResponseEntity<AvailabilityCacheStats> availabilityCacheStats() {
+        return ResponseEntity.ok(providerAvailabilityService.getCacheStats());
+    }
+
     @GetMapping("/pending/listings")
     public ResponseEntity<List<Listing>> getAllPendingListings() {
         return ResponseEntity.ok(adminService.findAllPendingListings());
@@ -1,21 +1,36 @@
 package com.example.backend.controllers;
 
+import com.example.backend.dto.BatchSearchRequest;
+import com.example.backend.dto.BookingPageRequest;
 import com.example.backend.dto.CreateBookingRequest;
+import com.example.backend.dto.CreateBookingSeriesRequest;
 import com.example.backend.dto.CreateReviewRequest;
 import com.example.backend.dto.CustomerBookingResponse;
+import com.example.backend.dto.FreeSlotsDay;
+import com.example.backend.dto.ListingSearchResult;
+import com.example.backend.dto.PageResponse;
+import com.example.backend.dto.SearchRequest;
+import com.example.backend.dto.Suggestion;
 import com.example.backend.entity.Booking;
-import com.example.backend.entity.Listing;
 import com.example.backend.entity.ProviderAvailability;
 import com.example.backend.entity.Review;
 import com.example.backend.enums.DayEnum;
 import com.example.backend.services.BookingService;
+import com.example.backend.services.IdempotencyStore;
 import com.example.backend.services.ProviderAvailabilityService;
 import com.example.backend.services.ReviewService;
 import com.example.backend.services.SearchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -27,22 +42,60 @@ public class CustomerController {
     private final BookingService bookingService;
     private final ProviderAvailabilityService providerAvailabilityService;
     private final ReviewService reviewService;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
 
     // Search
 
     @GetMapping("/search")
-    public ResponseEntity<List<Listing>> searchNearest(@RequestParam Double lat, @RequestParam Double lng, @RequestParam Long categoryId) {
-        System.out.print(lat+" "+lng+" "+categoryId);
-        return ResponseEntity.ok(searchService.findNearestListings(lat, lng, categoryId));
+    public ResponseEntity<PageResponse<ListingSearchResult>> searchNearest(@ModelAttribute SearchRequest req) {
+        return ResponseEntity.ok(searchService.findNearestListings(req));
+    }
+
+    // One JSON line per category, written as soon as that category is ready
+    @GetMapping("/search/batch")
+    public ResponseEntity<StreamingResponseBody> batchSearch(@ModelAttribute BatchSearchRequest req) {
+        searchService.validateBatch(req);
+        StreamingResponseBody body = out -> searchService.batchSearch(req, result -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(searchService.suggest(q, limit));
     }
 
     // Booking
     @PostMapping("/bookings/{customerId}")
     public ResponseEntity<Booking> createBooking(
             @PathVariable Long customerId,
-            @RequestBody CreateBookingRequest req
+            @RequestBody CreateBookingRequest req,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
-        return ResponseEntity.ok(bookingService.createBooking(customerId, req));
+        return ResponseEntity.ok(idempotencyStore.execute("booking:" + customerId, idempotencyKey, req,
+                () -> bookingService.createBooking(customerId, req)));
+    }
+
+    // Several slots of one listing, booked all-or-nothing
+    @PostMapping("/bookings/{customerId}/series")
+    public ResponseEntity<List<Booking>> createBookingSeries(
+            @PathVariable Long customerId,
+            @RequestBody CreateBookingSeriesRequest req,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        return ResponseEntity.ok(idempotencyStore.execute("booking-series:" + customerId, idempotencyKey, req,
+                () -> bookingService.createBookingSeries(customerId, req)));
     }
 
     @PostMapping("/bookings/{bookingId}/cancel")
@@ -51,11 +104,12 @@ public class CustomerController {
     }
 
     @GetMapping("/bookings/{customerId}")
-    public ResponseEntity<List<CustomerBookingResponse>> myBookings(
-            @PathVariable Long customerId
+    public ResponseEntity<PageResponse<CustomerBookingResponse>> myBookings(
+            @PathVariable Long customerId,
+            @ModelAttribute BookingPageRequest req
     ) {
         return ResponseEntity.ok(
-                bookingService.getCustomerBookings(customerId)
+                bookingService.getCustomerBookings(customerId, req)
         );
     }
 
@@ -70,11 +124,25 @@ public class CustomerController {
         );
     }
 
+    // Slots still bookable on each date from..to (yyyy-MM-dd, inclusive)
+    @GetMapping("/availability/{providerId}/free")
+    public ResponseEntity<List<FreeSlotsDay>> freeSlots(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(providerAvailabilityService.getFreeSlots(providerId, from, to));
+    }
+
     //Review
 
     @PostMapping("/reviews")
-    public ResponseEntity<Review> submitReview(@RequestBody CreateReviewRequest req) {
-        return ResponseEntity.ok(reviewService.submitReview(req));
+    public ResponseEntity<Review> submitReview(
+            @RequestBody CreateReviewRequest req,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        return ResponseEntity.ok(idempotencyStore.execute("review:" + req.getBookingId(), idempotencyKey, req,
+                () -> reviewService.submitReview(req)));
     }
 
     @GetMapping("/reviews/{bookingId}")
@@ -1,21 +1,34 @@
 package com.example.backend.controllers;
 
+import com.example.backend.dto.AvailabilityOverrideRequest;
 import com.example.backend.dto.AvailabilityRequest;
+import com.example.backend.dto.BookingCalendarDay;
+import com.example.backend.dto.BookingPageRequest;
+import com.example.backend.dto.BulkBookingRequest;
+import com.example.backend.dto.BulkBookingResult;
 import com.example.backend.dto.CreateListingRequest;
+import com.example.backend.dto.DayAvailability;
+import com.example.backend.dto.PageResponse;
+import com.example.backend.dto.ProviderBookingResponse;
 import com.example.backend.dto.RemoveSlotRequest;
 import com.example.backend.dto.UpdateListingRequest;
+import com.example.backend.dto.WeeklyAvailabilityRequest;
 import com.example.backend.entity.Booking;
 import com.example.backend.entity.Listing;
 import com.example.backend.entity.ProviderAvailability;
+import com.example.backend.entity.ProviderAvailabilityOverride;
+import com.example.backend.enums.BookingStatus;
 import com.example.backend.enums.DayEnum;
 import com.example.backend.services.BookingService;
 import com.example.backend.services.ListingService;
 import com.example.backend.services.ProviderAvailabilityService;
 import com.example.backend.services.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -90,6 +103,16 @@ public class ProviderController {
         return ResponseEntity.ok("Availability saved");
     }
 
+    // The whole week at once; only changed days are written
+    @PutMapping("/availability/{providerId}/week")
+    public ResponseEntity<String> setWeeklyAvailability(
+            @PathVariable Long providerId,
+            @RequestBody WeeklyAvailabilityRequest req
+    ) {
+        int changed = providerAvailabilityService.saveWeeklyAvailability(providerId, req);
+        return ResponseEntity.ok("Weekly availability saved, " + changed + " day(s) changed");
+    }
+
     @GetMapping("/availability/{providerId}")
     public ResponseEntity<ProviderAvailability> getAvailability(
             @PathVariable Long providerId,
@@ -114,13 +137,53 @@ public class ProviderController {
     }
 
 
+    // Date overrides on top of the weekly template: extra hours, removed slots or a closed day
+    @PutMapping("/availability/{providerId}/overrides/{date}")
+    public ResponseEntity<ProviderAvailabilityOverride> saveOverride(
+            @PathVariable Long providerId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestBody AvailabilityOverrideRequest req
+    ) {
+        return ResponseEntity.ok(providerAvailabilityService.saveOverride(providerId, date, req));
+    }
+
+    @DeleteMapping("/availability/{providerId}/overrides/{date}")
+    public ResponseEntity<String> deleteOverride(
+            @PathVariable Long providerId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        providerAvailabilityService.deleteOverride(providerId, date);
+        return ResponseEntity.ok("Override removed");
+    }
+
+    // Slots actually offered on each date from..to (yyyy-MM-dd, inclusive)
+    @GetMapping("/availability/{providerId}/effective")
+    public ResponseEntity<List<DayAvailability>> effectiveAvailability(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(providerAvailabilityService.getEffectiveAvailability(providerId, from, to));
+    }
+
+
     // Booking
 
     @GetMapping("/bookings/{providerId}")
-    public ResponseEntity<?> providerBookings(
-            @PathVariable Long providerId
+    public ResponseEntity<PageResponse<ProviderBookingResponse>> providerBookings(
+            @PathVariable Long providerId,
+            @ModelAttribute BookingPageRequest req
+    ) {
+        return ResponseEntity.ok(bookingService.getProviderBookings(providerId, req));
+    }
+
+    // month=yyyy-MM; one entry per day of the month
+    @GetMapping("/bookings/{providerId}/calendar")
+    public ResponseEntity<List<BookingCalendarDay>> bookingCalendar(
+            @PathVariable Long providerId,
+            @RequestParam String month
     ) {
-        return ResponseEntity.ok(bookingService.getProviderBookings(providerId));
+        return ResponseEntity.ok(bookingService.getProviderCalendar(providerId, month));
     }
 
     @PostMapping("/bookings/{bookingId}/confirm")
@@ -138,6 +201,26 @@ public class ProviderController {
         return ResponseEntity.ok(bookingService.cancelBooking(bookingId,"Provider"));
     }
 
+    // Bulk actions: per-booking results, in request order
+
+    @PostMapping("/bookings/{providerId}/bulk/confirm")
+    public ResponseEntity<List<BulkBookingResult>> bulkConfirm(@PathVariable Long providerId,
+                                                               @RequestBody BulkBookingRequest req) {
+        return ResponseEntity.ok(bookingService.bulkTransition(providerId, req, BookingStatus.CONFIRMED));
+    }
+
+    @PostMapping("/bookings/{providerId}/bulk/complete")
+    public ResponseEntity<List<BulkBookingResult>> bulkComplete(@PathVariable Long providerId,
+                                                                @RequestBody BulkBookingRequest req) {
+        return ResponseEntity.ok(bookingService.bulkTransition(providerId, req, BookingStatus.COMPLETED));
+    }
+
+    @PostMapping("/bookings/{providerId}/bulk/cancel")
+    public ResponseEntity<List<BulkBookingResult>> bulkCancel(@PathVariable Long providerId,
+                                                              @RequestBody BulkBookingRequest req) {
+        return ResponseEntity.ok(bookingService.bulkTransition(providerId, req, BookingStatus.CANCELLED));
+    }
+
 
     //reviews
 
@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AvailabilityCacheStats {
+    private int size;             // providers cached
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;       // dropped to stay under max-entries
+    private long expirations;     // dropped after their TTL
+    private long invalidations;   // dropped because the provider's availability changed
+    private boolean broadcast;    // invalidations shared with other instances
+}
@@ -0,0 +1,13 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AvailabilityOverrideRequest {
+
+    private boolean closed;            // true: nothing bookable that date
+    private List<String> addSlots;     // ["06:00 PM"] on top of the weekly slots
+    private List<String> removeSlots;  // ["09:00 AM"] taken off them
+}
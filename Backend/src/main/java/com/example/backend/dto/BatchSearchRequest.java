@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchSearchRequest {
+
+    private Double lat;
+    private Double lng;
+    private List<Long> categoryIds; // ?categoryIds=1,2,3
+
+    private Double radiusKm;        // Optional, unbounded when missing
+    private Integer size;           // Optional results per category
+}
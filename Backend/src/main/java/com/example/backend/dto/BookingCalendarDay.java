@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import com.example.backend.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// One day of a provider's month: slots on offer, slots taken by live bookings and bookings per status
+@Data
+@AllArgsConstructor
+public class BookingCalendarDay {
+    private LocalDate date;
+    private int offeredSlots;
+    private long bookedSlots;
+    private Map<BookingStatus, Long> statusCounts;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import com.example.backend.enums.BookingStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class BookingPageRequest {
+
+    private BookingStatus status;   // Optional
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;         // Optional, booking date inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;           // Optional, booking date inclusive
+
+    private String cursor;          // Optional, nextCursor of the previous page
+    private Integer size;           // Optional page size
+}
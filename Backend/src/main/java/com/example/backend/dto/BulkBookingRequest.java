@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkBookingRequest {
+    private List<Long> bookingIds;
+}
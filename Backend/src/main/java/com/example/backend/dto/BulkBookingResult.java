@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Outcome for one booking of a bulk action: its status afterwards, or why it was left alone
+@Data
+@AllArgsConstructor
+public class BulkBookingResult {
+    private Long bookingId;
+    private boolean updated;
+    private String status;  // null when the booking was not found
+    private String message; // null when updated
+}
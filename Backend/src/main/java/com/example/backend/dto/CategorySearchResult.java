@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// One category of a batch search; nextCursor continues it through /api/customer/search
+@Data
+@AllArgsConstructor
+public class CategorySearchResult {
+    private Long categoryId;
+    private List<ListingSearchResult> items;
+    private String nextCursor;
+}
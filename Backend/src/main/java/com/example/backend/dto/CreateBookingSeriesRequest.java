@@ -0,0 +1,27 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Several bookings of one listing at once: explicit slots, a weekly recurrence, or both
+@Data
+public class CreateBookingSeriesRequest {
+
+    private Long providerId;
+    private Long listingId;
+
+    private List<Slot> slots;       // Optional explicit (date, slot) pairs
+
+    private LocalDate startDate;    // Optional recurrence: first date,
+    private String timeSlot;        // the slot on every date,
+    private Integer occurrences;    // how many dates
+    private Integer everyWeeks;     // and the gap between them (default 1)
+
+    @Data
+    public static class Slot {
+        private LocalDate bookingDate;
+        private String timeSlot;
+    }
+}
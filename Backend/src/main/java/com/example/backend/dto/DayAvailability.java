@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Slots a provider offers on one date: the weekly template with that date's override applied
+@Data
+@AllArgsConstructor
+public class DayAvailability {
+    private LocalDate date;
+    private List<String> timeSlots;
+    private boolean overridden;
+}
@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Slots of one date that are offered and not held by a live booking
+@Data
+@AllArgsConstructor
+public class FreeSlotsDay {
+    private LocalDate date;
+    private List<String> timeSlots;
+}
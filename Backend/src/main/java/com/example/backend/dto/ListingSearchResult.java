@@ -0,0 +1,36 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Just what a search result card shows; filled straight from a query, never from Listing entities
+@Data
+@NoArgsConstructor
+public class ListingSearchResult {
+
+    private Long id;
+    private Long providerId;
+    private Long categoryId;
+
+    private String title;
+    private BigDecimal price;
+    private String thumbnail; // Cloudinary URL
+
+    private String providerName;
+    private Double rating;    // average review rating, null when unrated
+
+    private Double distance;  // km from the searching customer
+
+    public ListingSearchResult(Long id, Long providerId, Long categoryId, String title, BigDecimal price,
+                               String thumbnail, String providerName) {
+        this.id = id;
+        this.providerId = providerId;
+        this.categoryId = categoryId;
+        this.title = title;
+        this.price = price;
+        this.thumbnail = thumbnail;
+        this.providerName = providerName;
+    }
+}
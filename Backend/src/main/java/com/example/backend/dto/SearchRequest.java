@@ -0,0 +1,25 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class SearchRequest {
+
+    private Double lat;
+    private Double lng;
+    private Long categoryId;    // Optional when q is given
+    private String q;           // Optional keywords matched against title and description
+
+    private Double radiusKm;    // Optional, unbounded when missing
+    private String cursor;      // Optional, nextCursor of the previous page
+    private Integer size;       // Optional page size
+    private String sort;        // Optional: "distance" (default) or "relevance"
+
+    // Optional: only providers still free on this date (and in this slot when given)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate date;
+    private String timeSlot;    // "10:00 AM"
+}
@@ -0,0 +1,12 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class Suggestion {
+    private String type; // CATEGORY or LISTING
+    private Long id;
+    private String text;
+}
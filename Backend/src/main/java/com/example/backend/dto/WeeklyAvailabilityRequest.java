@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import com.example.backend.enums.DayEnum;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class WeeklyAvailabilityRequest {
+
+    // The whole week: { "MONDAY": ["09:00 AM","10:00 AM"], ... }; a missing or empty day has no slots
+    private Map<DayEnum, List<String>> days;
+}
@@ -8,11 +8,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+// One live booking per (provider_id, booking_date, time_slot): a partial unique index that ignores
+// CANCELLED rows, created by BookingSchemaMigration since JPA cannot declare it
 @Table(
         name = "bookings",
-        uniqueConstraints = @UniqueConstraint(
-                columnNames = {"provider_id", "booking_date", "time_slot"}
-        )
+        indexes = {
+                @Index(name = "idx_bookings_provider_date", columnList = "provider_id, booking_date"),
+                @Index(name = "idx_bookings_customer_date", columnList = "customer_id, booking_date"),
+                @Index(name = "idx_bookings_status_created", columnList = "status, created_at")
+        }
 )
 @Data
 public class Booking {
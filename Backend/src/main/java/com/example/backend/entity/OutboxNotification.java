@@ -0,0 +1,30 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A notification saved with the change it reports, waiting to be moved into notifications.
+// Rows that could not be moved get failedAt and the error, and stay here to be looked at.
+@Entity
+@Table(name = "notification_outbox")
+@Data
+public class OutboxNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;  // Receiver
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime failedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+}
@@ -1,5 +1,6 @@
 package com.example.backend.entity;
 import com.example.backend.enums.DayEnum;
+import com.example.backend.utility.TimeSlots;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -27,4 +28,24 @@ public class ProviderAvailability {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String timeSlots;
     // Example: "09:00 AM,10:00 AM,02:00 PM"
+
+    // timeSlots as TimeSlots grid bits, kept in step on every save; null while a slot is off the grid
+    @Column(name = "slot_mask")
+    private Long slotMask;
+
+    @PrePersist
+    @PreUpdate
+    void encodeSlots() {
+        slotMask = TimeSlots.encode(timeSlots);
+    }
+
+    public boolean offers(String slot) {
+        return slotMask != null
+                ? TimeSlots.contains(slotMask, TimeSlots.bit(slot))
+                : TimeSlots.contains(timeSlots, slot);
+    }
+
+    public int slotCount() {
+        return slotMask != null ? Long.bitCount(slotMask) : TimeSlots.parse(timeSlots).size();
+    }
 }
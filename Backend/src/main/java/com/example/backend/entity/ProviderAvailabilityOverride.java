@@ -0,0 +1,37 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// One date's change to the weekly template: slots added and removed as TimeSlots grid masks,
+// or the whole day closed. A day without a row follows the template.
+@Entity
+@Table(
+        name = "provider_availability_override",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"provider_id", "override_date"}
+        )
+)
+@Data
+public class ProviderAvailabilityOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(name = "override_date", nullable = false)
+    private LocalDate date;
+
+    private boolean closed;
+
+    @Column(nullable = false)
+    private long addedMask;
+
+    @Column(nullable = false)
+    private long removedMask;
+}
@@ -1,7 +1,12 @@
 package com.example.backend.enums;
 
+import java.time.LocalDate;
+
 public enum DayEnum {
     MONDAY, TUESDAY, WEDNESDAY, THURSDAY,
-    FRIDAY, SATURDAY, SUNDAY
-}
+    FRIDAY, SATURDAY, SUNDAY;
 
+    public static DayEnum of(LocalDate date) {
+        return valueOf(date.getDayOfWeek().name());
+    }
+}
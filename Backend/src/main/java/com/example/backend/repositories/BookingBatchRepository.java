@@ -0,0 +1,57 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entity.Booking;
+import com.example.backend.enums.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Set-based booking writes that JPA would issue row by row (IDENTITY ids disable insert batching)
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchRepository {
+
+    private static final String INSERT_ALL = """
+            INSERT INTO bookings (customer_id, provider_id, listing_id, booking_date, time_slot, status, created_at)
+            SELECT ?, ?, ?, s.booking_date, s.time_slot, ?, ?
+            FROM unnest(?::date[], ?::text[]) AS s(booking_date, time_slot)
+            RETURNING id, booking_date, time_slot
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inserts every booking (all of one customer, provider and listing) in one statement; ids are filled in
+    public List<Booking> insertAll(Long customerId, Long providerId, Long listingId,
+                                   List<LocalDate> dates, List<String> timeSlots) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_ALL);
+            ps.setLong(1, customerId);
+            ps.setLong(2, providerId);
+            ps.setLong(3, listingId);
+            ps.setString(4, BookingStatus.PENDING.name());
+            ps.setTimestamp(5, Timestamp.valueOf(createdAt));
+            ps.setArray(6, con.createArrayOf("date", dates.stream().map(Date::valueOf).toArray()));
+            ps.setArray(7, con.createArrayOf("text", timeSlots.toArray()));
+            return ps;
+        }, (rs, i) -> {
+            Booking b = new Booking();
+            b.setId(rs.getLong("id"));
+            b.setCustomerId(customerId);
+            b.setProviderId(providerId);
+            b.setListingId(listingId);
+            b.setBookingDate(rs.getObject("booking_date", LocalDate.class));
+            b.setTimeSlot(rs.getString("time_slot"));
+            b.setStatus(BookingStatus.PENDING);
+            b.setCreatedAt(createdAt);
+            return b;
+        });
+    }
+}
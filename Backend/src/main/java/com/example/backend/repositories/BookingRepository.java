@@ -1,23 +1,73 @@
 package com.example.backend.repositories;
 
 import com.example.backend.entity.Booking;
+import com.example.backend.enums.BookingStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    boolean existsByProviderIdAndBookingDateAndTimeSlot(
-            Long providerId,
-            LocalDate bookingDate,
-            String timeSlot
-    );
+    // providerId, timeSlot of every live (not cancelled) booking the given providers hold on a date
+    @Query("SELECT b.providerId, b.timeSlot FROM Booking b WHERE b.bookingDate = :date AND b.providerId IN :providerIds AND b.status <> 'CANCELLED'")
+    List<Object[]> findBookedSlots(@Param("date") LocalDate date, @Param("providerIds") Collection<Long> providerIds);
+
+    // bookingDate, timeSlot of every live booking one provider holds on any of the given dates
+    @Query("SELECT b.bookingDate, b.timeSlot FROM Booking b WHERE b.providerId = :providerId AND b.bookingDate IN :dates AND b.status <> 'CANCELLED'")
+    List<Object[]> findBookedSlotsOn(@Param("providerId") Long providerId, @Param("dates") Collection<LocalDate> dates);
+
+    // bookingDate, timeSlot of every live booking one provider holds between two dates (inclusive)
+    @Query("SELECT b.bookingDate, b.timeSlot FROM Booking b WHERE b.providerId = :providerId AND b.bookingDate BETWEEN :from AND :to AND b.status <> 'CANCELLED'")
+    List<Object[]> findBookedSlotsBetween(@Param("providerId") Long providerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // bookingDate, timeSlot of every live booking one provider holds from a date on
+    @Query("SELECT b.bookingDate, b.timeSlot FROM Booking b WHERE b.providerId = :providerId AND b.bookingDate >= :from AND b.status <> 'CANCELLED'")
+    List<Object[]> findBookedSlotsFrom(@Param("providerId") Long providerId, @Param("from") LocalDate from);
+
+    // bookingDate, status, count of one provider's bookings between two dates (inclusive)
+    @Query("SELECT b.bookingDate, b.status, COUNT(b) FROM Booking b WHERE b.providerId = :providerId AND b.bookingDate BETWEEN :from AND :to GROUP BY b.bookingDate, b.status")
+    List<Object[]> countByDateAndStatus(@Param("providerId") Long providerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
 
     List<Booking> findByCustomerId(Long customerId);
     List<Booking> findByProviderId(Long providerId);
 
+    // Newest first; every filter is optional and the page resumes after (afterDate, afterId)
+    @Query("""
+   SELECT b FROM Booking b
+   WHERE b.providerId = :providerId
+     AND (:status IS NULL OR b.status = :status)
+     AND (CAST(:from AS LocalDate) IS NULL OR b.bookingDate >= :from)
+     AND (CAST(:to AS LocalDate) IS NULL OR b.bookingDate <= :to)
+     AND (CAST(:afterDate AS LocalDate) IS NULL OR b.bookingDate < :afterDate
+          OR (b.bookingDate = :afterDate AND b.id < :afterId))
+   ORDER BY b.bookingDate DESC, b.id DESC
+""")
+    List<Booking> findProviderPage(@Param("providerId") Long providerId, @Param("status") BookingStatus status,
+                                   @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                   @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                   Limit limit);
+
+    @Query("""
+   SELECT b FROM Booking b
+   WHERE b.customerId = :customerId
+     AND (:status IS NULL OR b.status = :status)
+     AND (CAST(:from AS LocalDate) IS NULL OR b.bookingDate >= :from)
+     AND (CAST(:to AS LocalDate) IS NULL OR b.bookingDate <= :to)
+     AND (CAST(:afterDate AS LocalDate) IS NULL OR b.bookingDate < :afterDate
+          OR (b.bookingDate = :afterDate AND b.id < :afterId))
+   ORDER BY b.bookingDate DESC, b.id DESC
+""")
+    List<Booking> findCustomerPage(@Param("customerId") Long customerId, @Param("status") BookingStatus status,
+                                   @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                   @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                   Limit limit);
+
     @Query("""
    SELECT l.categoryId, COUNT(b.id)
    FROM Booking b
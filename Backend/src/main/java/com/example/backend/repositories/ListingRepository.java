@@ -1,34 +1,37 @@
 package com.example.backend.repositories;
 
+import com.example.backend.dto.ListingSearchResult;
 import com.example.backend.entity.Listing;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ListingRepository extends JpaRepository<Listing, Long> {
 
-    @Query(value = """
-        SELECT l.*
-        FROM listings l
-        JOIN users u ON u.id = l.provider_id
-        WHERE l.category_id = :categoryId
-          AND l.is_approved = true
-        ORDER BY (
-           6371 * acos(
-               cos(radians(:lat)) * cos(radians(u.permanent_latitude)) *
-               cos(radians(u.permanent_longitude) - radians(:lng)) +
-               sin(radians(:lat)) * sin(radians(u.permanent_latitude))
-           )
-        )
-        LIMIT 20
-        """, nativeQuery = true)
-    List<Listing> findNearestListings(
-            @Param("lat") Double lat,
-            @Param("lng") Double lng,
-            @Param("categoryId") Long categoryId
-    );
+    // id, providerId, categoryId, latitude, longitude of every approved listing (feeds ListingGeoIndex)
+    @Query("""
+   SELECT l.id, l.providerId, l.categoryId, u.permanentLatitude, u.permanentLongitude
+   FROM Listing l
+   JOIN User u ON u.id = l.providerId
+   WHERE l.isApproved = true
+""")
+    List<Object[]> findApprovedListingLocations();
+
+    @Query("SELECT l.id, l.createdAt FROM Listing l WHERE l.isApproved = true")
+    List<Object[]> findApprovedListingCreatedAt();
+
+    @Query("""
+   SELECT new com.example.backend.dto.ListingSearchResult(
+       l.id, l.providerId, l.categoryId, l.title, l.price, l.images, u.userName)
+   FROM Listing l
+   JOIN User u ON u.id = l.providerId
+   WHERE l.id IN :ids
+""")
+    List<ListingSearchResult> findSearchResultsByIds(@Param("ids") Collection<Long> ids);
+
     List<Listing> findByProviderId(Long providerId);
     List<Listing> findByIsApprovedTrue();
     List<Listing> findByIsApprovedFalse();
@@ -0,0 +1,44 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entity.ProviderAvailability;
+import com.example.backend.enums.DayEnum;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+// Writes a provider's weekly template changes as one statement instead of a find and save per day
+@Repository
+@RequiredArgsConstructor
+public class ProviderAvailabilityBatchRepository {
+
+    private static final String APPLY = """
+            WITH removed AS (
+                DELETE FROM provider_availability WHERE provider_id = ? AND day = ANY(?::text[])
+            )
+            INSERT INTO provider_availability (provider_id, day, time_slots, slot_mask)
+            SELECT ?, s.day, s.time_slots, s.slot_mask
+            FROM unnest(?::text[], ?::text[], ?::bigint[]) AS s(day, time_slots, slot_mask)
+            ON CONFLICT (provider_id, day)
+            DO UPDATE SET time_slots = EXCLUDED.time_slots, slot_mask = EXCLUDED.slot_mask
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inserts or replaces the upserted days and deletes the removed ones
+    public void apply(Long providerId, List<ProviderAvailability> upserts, Collection<DayEnum> removals) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY);
+            ps.setLong(1, providerId);
+            ps.setArray(2, con.createArrayOf("text", removals.stream().map(Enum::name).toArray()));
+            ps.setLong(3, providerId);
+            ps.setArray(4, con.createArrayOf("text", upserts.stream().map(a -> a.getDay().name()).toArray()));
+            ps.setArray(5, con.createArrayOf("text", upserts.stream().map(ProviderAvailability::getTimeSlots).toArray()));
+            ps.setArray(6, con.createArrayOf("bigint", upserts.stream().map(ProviderAvailability::getSlotMask).toArray()));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entity.ProviderAvailabilityOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProviderAvailabilityOverrideRepository
+        extends JpaRepository<ProviderAvailabilityOverride, Long> {
+
+    Optional<ProviderAvailabilityOverride> findByProviderIdAndDate(Long providerId, LocalDate date);
+
+    List<ProviderAvailabilityOverride> findByProviderIdAndDateBetween(Long providerId, LocalDate from, LocalDate to);
+
+    List<ProviderAvailabilityOverride> findByDateAndProviderIdIn(LocalDate date, Collection<Long> providerIds);
+}
@@ -4,6 +4,7 @@ import com.example.backend.entity.ProviderAvailability;
 import com.example.backend.enums.DayEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,5 +15,11 @@ public interface ProviderAvailabilityRepository
             Long providerId,
             DayEnum day
     );
+
+    List<ProviderAvailability> findByProviderId(Long providerId);
+
+    List<ProviderAvailability> findByProviderIdIn(Collection<Long> providerIds);
+
+    List<ProviderAvailability> findByDayAndProviderIdIn(DayEnum day, Collection<Long> providerIds);
 }
 
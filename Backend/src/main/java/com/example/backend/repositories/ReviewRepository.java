@@ -2,10 +2,15 @@ package com.example.backend.repositories;
 
 import com.example.backend.entity.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByBookingId(Long bookingId);
+
+    // listingId, rating sum, review count per listing (feeds ListingScoreBoard)
+    @Query("SELECT b.listingId, SUM(r.rating), COUNT(r.id) FROM Review r JOIN Booking b ON b.id = r.bookingId GROUP BY b.listingId")
+    List<Object[]> sumRatingsByListing();
 }
@@ -5,6 +5,7 @@ import com.example.backend.enums.AdminActionType;
 import com.example.backend.repositories.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,11 +19,14 @@ public class AdminService {
     private final AdminActionRepository adminActionRepository;
     private final NotificationService notificationService;
     private final UserRepository userRepository;
+    private final SearchIndexService searchIndexService;
 
+    @Transactional
     public Listing approveListing(Long listingId, Long adminId, String reason) {
         Listing listing = listingRepository.findById(listingId).orElseThrow();
         listing.setIsApproved(true);
         listingRepository.save(listing);
+        searchIndexService.listingChanged(listing);
 
         AdminAction action = new AdminAction();
         action.setListingId(listingId);
@@ -38,10 +42,12 @@ public class AdminService {
         return listing;
     }
 
+    @Transactional
     public Listing rejectListing(Long listingId, Long adminId, String reason) {
         Listing listing = listingRepository.findById(listingId).orElseThrow();
         listing.setIsApproved(false);
         listingRepository.save(listing);
+        searchIndexService.listingChanged(listing);
 
         AdminAction action = new AdminAction();
         action.setListingId(listingId);
@@ -59,15 +65,18 @@ public class AdminService {
 
     public ServiceCategory createCategory(ServiceCategory category, Long adminId) {
         ServiceCategory saved = categoryRepository.save(category);
+        searchIndexService.categoryChanged(saved);
         logEvent("CATEGORY_CREATED", adminId, null, saved.getId());
         return saved;
     }
 
+    @Transactional
     public void deleteCategory(Long categoryId) {
         ServiceCategory category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
 
         categoryRepository.delete(category);
+        searchIndexService.categoryDeleted(categoryId);
 
         // Notify all providers
         String message = "The service category '" + category.getName() + "' has been removed by Admin.";
@@ -0,0 +1,158 @@
+package com.example.backend.services;
+
+import com.example.backend.dto.AvailabilityCacheStats;
+import com.example.backend.entity.ProviderAvailability;
+import com.example.backend.enums.DayEnum;
+import com.example.backend.repositories.ProviderAvailabilityRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through LRU of each provider's weekly availability template, the rows behind every booking
+ * check and availability view. Values are detached copies, so nothing outside can change a cached
+ * row. Writers invalidate the provider once their change commits, and a load that overlapped an
+ * invalidation is not stored. With broadcasting on, other instances drop the provider as well;
+ * entries also expire after a TTL, which bounds how stale a missed change can leave an instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityCache {
+
+    private final ProviderAvailabilityRepository repository;
+    private final AvailabilityChangeBroadcaster broadcaster;
+
+    @Value("${availability.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${availability.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${availability.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private record Entry(Map<DayEnum, ProviderAvailability> days, long expiresAt) {
+    }
+
+    private final Map<Long, Entry> weekly = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void subscribe() {
+        broadcaster.onChange(this::evict);
+        broadcaster.onReset(this::clear);
+    }
+
+    // The provider's template by day; days without a row are absent
+    public Map<DayEnum, ProviderAvailability> weekly(Long providerId) {
+        return weekly(List.of(providerId)).getOrDefault(providerId, Map.of());
+    }
+
+    // Templates of many providers, the missing ones loaded with one query
+    public Map<Long, Map<DayEnum, ProviderAvailability>> weekly(Collection<Long> providerIds) {
+        Map<Long, Map<DayEnum, ProviderAvailability>> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long seenGeneration;
+        synchronized (this) {
+            seenGeneration = generation.get();
+            long now = System.currentTimeMillis();
+            for (Long providerId : providerIds) {
+                Entry cached = enabled ? weekly.get(providerId) : null;
+                if (cached != null && cached.expiresAt() < now) {
+                    weekly.remove(providerId);
+                    expirations.incrementAndGet();
+                    cached = null;
+                }
+                if (cached != null) {
+                    result.put(providerId, cached.days());
+                    hits.incrementAndGet();
+                } else {
+                    missing.add(providerId);
+                    misses.incrementAndGet();
+                }
+            }
+        }
+        if (missing.isEmpty()) return result;
+
+        Map<Long, Map<DayEnum, ProviderAvailability>> loaded = new HashMap<>();
+        for (Long providerId : missing) loaded.put(providerId, new EnumMap<>(DayEnum.class));
+        for (ProviderAvailability a : repository.findByProviderIdIn(missing)) {
+            loaded.get(a.getProviderId()).put(a.getDay(), copy(a));
+        }
+        loaded.replaceAll((providerId, days) -> Collections.unmodifiableMap(days));
+        result.putAll(loaded);
+
+        synchronized (this) {
+            if (enabled && seenGeneration == generation.get()) {
+                long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+                loaded.forEach((providerId, days) -> weekly.put(providerId, new Entry(days, expiresAt)));
+                Iterator<Entry> eldest = weekly.values().iterator();
+                while (weekly.size() > maxEntries && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+        return result;
+    }
+
+    // The provider's template changed; dropped here once the change commits, and on other instances
+    public void invalidate(Long providerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(providerId);
+            broadcaster.publish(providerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(providerId);
+                broadcaster.publish(providerId);
+            }
+        });
+    }
+
+    public synchronized AvailabilityCacheStats stats() {
+        long h = hits.get();
+        long m = misses.get();
+        return new AvailabilityCacheStats(
+                weekly.size(), h, m,
+                h + m == 0 ? 0 : (double) h / (h + m),
+                evictions.get(), expirations.get(), invalidations.get(),
+                broadcaster.isEnabled());
+    }
+
+    private synchronized void evict(Long providerId) {
+        generation.incrementAndGet();
+        if (weekly.remove(providerId) != null) invalidations.incrementAndGet();
+    }
+
+    private synchronized void clear() {
+        generation.incrementAndGet();
+        invalidations.addAndGet(weekly.size());
+        weekly.clear();
+    }
+
+    private static ProviderAvailability copy(ProviderAvailability a) {
+        ProviderAvailability c = new ProviderAvailability();
+        c.setId(a.getId());
+        c.setProviderId(a.getProviderId());
+        c.setDay(a.getDay());
+        c.setTimeSlots(a.getTimeSlots());
+        c.setSlotMask(a.getSlotMask());
+        return c;
+    }
+}
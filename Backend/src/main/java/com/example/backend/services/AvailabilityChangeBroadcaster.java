@@ -0,0 +1,129 @@
+package com.example.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Tells other instances which provider's availability changed, over Postgres LISTEN/NOTIFY, so
+ * their AvailabilityCache drops it too. Off by default: a single instance needs no broadcast.
+ * One connection per instance is held for listening and reopened if it breaks, waiting longer
+ * after each failure in a row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailabilityChangeBroadcaster {
+
+    private static final String CHANNEL = "availability_changed";
+    private static final long MAX_RETRY_DELAY_MS = 30_000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${availability.cache.broadcast:false}")
+    private boolean enabled;
+
+    @Value("${availability.cache.listen-timeout-ms:1000}")
+    private int listenTimeoutMs;
+
+    // payloads are "<instance>:<providerId>", so an instance skips its own notifications
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Consumer<Long>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> resetSubscribers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void onChange(Consumer<Long> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    // Called after the listener reconnected: notifications may have been missed meanwhile
+    public void onReset(Runnable subscriber) {
+        resetSubscribers.add(subscriber);
+    }
+
+    public void publish(Long providerId) {
+        if (!enabled) return;
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+        }, CHANNEL, instanceId + ":" + providerId);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        running = true;
+        listener = new Thread(this::listen, "availability-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) listener.interrupt();
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        long retryDelayMs = listenTimeoutMs;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) resetSubscribers.forEach(Runnable::run);
+                reconnect = true;
+                retryDelayMs = listenTimeoutMs;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(listenTimeoutMs);
+                    if (notifications == null) continue;
+                    for (PGNotification n : notifications) received(n.getParameter());
+                }
+            } catch (SQLException | RuntimeException e) {
+                // connection lost or a subscriber failed: wait, then listen again on a new connection
+                if (!running) return;
+                log.warn("Availability listener failed, listening again in {} ms", retryDelayMs, e);
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private void received(String payload) {
+        int sep = payload.lastIndexOf(':');
+        if (sep < 0 || payload.substring(0, sep).equals(instanceId)) return;
+        try {
+            Long providerId = Long.valueOf(payload.substring(sep + 1));
+            subscribers.forEach(s -> s.accept(providerId));
+        } catch (NumberFormatException ignored) {
+            // not one of ours
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.services;
+
+import com.example.backend.entity.Booking;
+import com.example.backend.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancels bookings a provider left PENDING for longer than the hold time, so their slot can be
+ * booked again. Each sweep walks the (status, created_at) index from the oldest expired hold,
+ * one batch per transaction, so its cost follows the number of expired holds rather than the
+ * size of the bookings table.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingExpiryService {
+
+    private final BookingStateMachine bookingStateMachine;
+    private final NotificationService notificationService;
+    private final SlotReservationEngine slotReservationEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.pending-expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.pending-expiry.hold-minutes:1440}")
+    private long holdMinutes;
+
+    @Value("${booking.pending-expiry.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${booking.pending-expiry.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) return;
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(holdMinutes);
+        Integer expired;
+        do {
+            expired = transactionTemplate.execute(status -> expireBatch(cutoff));
+        } while (expired != null && expired == batchSize);
+    }
+
+    private int expireBatch(LocalDateTime cutoff) {
+        List<Booking> bookings = bookingStateMachine.expirePending(cutoff, batchSize);
+
+        List<Notification> notifications = new ArrayList<>();
+        for (Booking b : bookings) {
+            String when = b.getBookingDate() + " at " + b.getTimeSlot();
+            notifications.add(notification(b.getCustomerId(),
+                    "Your booking request for " + when + " expired without a response from the provider and was CANCELLED."));
+            notifications.add(notification(b.getProviderId(),
+                    "The booking request for " + when + " expired without your response and was CANCELLED."));
+            slotReservationEngine.releaseAfterCommit(b.getProviderId(), b.getBookingDate(), b.getTimeSlot());
+        }
+        notificationService.sendNotifications(notifications);
+
+        return bookings.size();
+    }
+
+    private static Notification notification(Long userId, String message) {
+        Notification n = new Notification();
+        n.setUserId(userId);
+        n.setMessage(message);
+        return n;
+    }
+}
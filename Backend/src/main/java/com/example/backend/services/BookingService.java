@@ -1,59 +1,83 @@
 package com.example.backend.services;
 
+import com.example.backend.dto.BookingCalendarDay;
+import com.example.backend.dto.BookingPageRequest;
+import com.example.backend.dto.BulkBookingRequest;
+import com.example.backend.dto.BulkBookingResult;
 import com.example.backend.dto.CreateBookingRequest;
+import com.example.backend.dto.CreateBookingSeriesRequest;
 import com.example.backend.dto.CustomerBookingResponse;
+import com.example.backend.dto.PageResponse;
 import com.example.backend.dto.ProviderBookingResponse;
 import com.example.backend.entity.Booking;
 import com.example.backend.entity.Listing;
-import com.example.backend.entity.ProviderAvailability;
+import com.example.backend.entity.Notification;
 import com.example.backend.entity.User;
 import com.example.backend.enums.BookingStatus;
-import com.example.backend.enums.DayEnum;
+import com.example.backend.repositories.BookingBatchRepository;
 import com.example.backend.repositories.BookingRepository;
 import com.example.backend.repositories.ListingRepository;
-import com.example.backend.repositories.ProviderAvailabilityRepository;
 import com.example.backend.repositories.UserRepository;
+import com.example.backend.utility.CursorCodec;
+import com.example.backend.utility.TimeSlots;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_BOOKINGS = 500;
+    private static final int MAX_SERIES_BOOKINGS = 52;
+
+    private record Cursor(LocalDate bookingDate, Long id) {
+    }
+
     private final BookingRepository bookingRepository;
-    private final ProviderAvailabilityRepository providerAvailabilityRepository;
+    private final ProviderAvailabilityService providerAvailabilityService;
     private final ListingRepository listingRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ListingScoreBoard listingScoreBoard;
+    private final SlotReservationEngine slotReservationEngine;
+    private final BookingStateMachine bookingStateMachine;
+    private final BookingBatchRepository bookingBatchRepository;
 
     @Transactional
     public Booking createBooking(Long customerId, CreateBookingRequest req) {
+        String slot = TimeSlots.normalize(req.getTimeSlot());
 
-        //  Check double booking
-        if (bookingRepository.existsByProviderIdAndBookingDateAndTimeSlot(
-                req.getProviderId(),
-                req.getBookingDate(),
-                req.getTimeSlot()
-        )) {
-            throw new RuntimeException("Time slot already booked");
-        }
-
-        //  Check provider availability
-        DayEnum day = req.getBookingDate().getDayOfWeek()
-                .name()
-                .equals("MONDAY") ? DayEnum.MONDAY : DayEnum.valueOf(
-                req.getBookingDate().getDayOfWeek().name()
-        );
+        //  Check double booking (held in memory until this transaction ends)
+        slotReservationEngine.reserve(req.getProviderId(), req.getBookingDate(), slot);
 
-        ProviderAvailability availability =
-                providerAvailabilityRepository.findByProviderIdAndDay(
-                        req.getProviderId(), day
-                ).orElseThrow(() -> new RuntimeException("Provider not available"));
+        //  Check provider availability (weekly template and that date's override)
+        ProviderAvailabilityService.EffectiveDay day =
+                providerAvailabilityService.resolve(req.getProviderId(), req.getBookingDate());
 
-        if (!availability.getTimeSlots().contains(req.getTimeSlot())) {
+        if (day.slotCount() == 0) {
+            throw new RuntimeException("Provider not available");
+        }
+        if (!day.offers(slot)) {
             throw new RuntimeException("Selected slot not available");
         }
 
@@ -63,64 +87,106 @@ public class BookingService {
         booking.setProviderId(req.getProviderId());
         booking.setListingId(req.getListingId());
         booking.setBookingDate(req.getBookingDate());
-        booking.setTimeSlot(req.getTimeSlot());
+        booking.setTimeSlot(slot);
         booking.setStatus(BookingStatus.PENDING);
 
+        Booking saved;
+        try {
+            saved = bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            // booked by another instance since this one loaded the provider's day
+            throw new RuntimeException("Time slot already booked");
+        }
+
         notificationService.sendNotification(
-                booking.getProviderId(),
-                "New booking request for " + booking.getListingId() +
-                        " on " + booking.getBookingDate() + " at " + booking.getTimeSlot() + ". Status: PENDING."
+                saved.getProviderId(),
+                "New booking request for " + saved.getListingId() +
+                        " on " + saved.getBookingDate() + " at " + saved.getTimeSlot() + ". Status: PENDING."
         );
+        return saved;
+    }
 
+    // CUSTOMER → BOOK a series: every (date, slot) is checked up front and all are inserted together, or none
+    @Transactional
+    public List<Booking> createBookingSeries(Long customerId, CreateBookingSeriesRequest req) {
+        if (req.getProviderId() == null || req.getListingId() == null) {
+            throw new RuntimeException("providerId and listingId are required");
+        }
+        NavigableMap<LocalDate, Set<String>> slotsByDate = seriesSlots(req);
+
+        //  Check provider availability: the weekly template and the overrides of the whole span, resolved once
+        Map<LocalDate, ProviderAvailabilityService.EffectiveDay> days = providerAvailabilityService.resolve(
+                req.getProviderId(), slotsByDate.firstKey(), slotsByDate.lastKey());
+        slotsByDate.forEach((date, slots) -> {
+            for (String slot : slots) {
+                if (!days.get(date).offers(slot)) {
+                    throw new RuntimeException("Selected slot not available: " + date + " " + slot);
+                }
+            }
+        });
+
+        //  Check double booking for all dates at once (held in memory until this transaction ends)
+        slotReservationEngine.reserveAll(req.getProviderId(), slotsByDate);
+
+        List<LocalDate> dates = new ArrayList<>();
+        List<String> timeSlots = new ArrayList<>();
+        slotsByDate.forEach((date, slots) -> slots.forEach(slot -> {
+            dates.add(date);
+            timeSlots.add(slot);
+        }));
+
+        List<Booking> bookings;
+        try {
+            bookings = bookingBatchRepository.insertAll(
+                    customerId, req.getProviderId(), req.getListingId(), dates, timeSlots);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Time slot already booked");
+        }
 
-        return bookingRepository.save(booking);
+        notificationService.sendNotification(
+                req.getProviderId(),
+                bookings.size() + " new booking requests for " + req.getListingId() +
+                        " from " + dates.get(0) + " to " + dates.get(dates.size() - 1) + ". Status: PENDING."
+        );
+        return bookings;
     }
 
     // PROVIDER → CONFIRM
+    @Transactional
     public Booking confirmBooking(Long bookingId) {
-        Booking booking = getBooking(bookingId);
-
-        if (booking.getStatus() != BookingStatus.PENDING) {
-            throw new RuntimeException("Only pending bookings can be confirmed");
-        }
-
-        booking.setStatus(BookingStatus.CONFIRMED);
+        BookingStateMachine.Transition t = bookingStateMachine.move(bookingId, BookingStatus.CONFIRMED);
+        Booking booking = t.booking();
 
         notificationService.sendNotification(
                 booking.getCustomerId(),
                 "Your booking on " + booking.getBookingDate() + " at " + booking.getTimeSlot() + " is CONFIRMED."
         );
 
-        return bookingRepository.save(booking);
+        listingScoreBoard.bookingStatusChanged(booking.getListingId(), t.from(), BookingStatus.CONFIRMED);
+        return booking;
     }
 
     // PROVIDER → COMPLETE
+    @Transactional
     public Booking completeBooking(Long bookingId) {
-        Booking booking = getBooking(bookingId);
-
-        if (booking.getStatus() != BookingStatus.CONFIRMED) {
-            throw new RuntimeException("Only confirmed bookings can be completed");
-        }
-
-        booking.setStatus(BookingStatus.COMPLETED);
+        BookingStateMachine.Transition t = bookingStateMachine.move(bookingId, BookingStatus.COMPLETED);
+        Booking booking = t.booking();
 
         notificationService.sendNotification(
                 booking.getCustomerId(),
                 "Your booking on " + booking.getBookingDate() + " at " + booking.getTimeSlot() + " is COMPLETED."
         );
 
-        return bookingRepository.save(booking);
+        listingScoreBoard.bookingStatusChanged(booking.getListingId(), t.from(), BookingStatus.COMPLETED);
+        return booking;
     }
 
     // CUSTOMER / PROVIDER → CANCEL
+    @Transactional
     public Booking cancelBooking(Long bookingId,String cancelledBy) {
-        Booking booking = getBooking(bookingId);
-
-        if (booking.getStatus() == BookingStatus.COMPLETED) {
-            throw new RuntimeException("Completed bookings cannot be cancelled");
-        }
-
-        booking.setStatus(BookingStatus.CANCELLED);
+        BookingStateMachine.Transition t = bookingStateMachine.move(bookingId, BookingStatus.CANCELLED);
+        Booking booking = t.booking();
+        slotReservationEngine.releaseAfterCommit(booking.getProviderId(), booking.getBookingDate(), booking.getTimeSlot());
 
         Long notifyUser = (cancelledBy.equals("Customer")) ? booking.getCustomerId() : booking.getProviderId();
         String by = cancelledBy;
@@ -130,27 +196,112 @@ public class BookingService {
                 "Your booking on " + booking.getBookingDate() + " at " + booking.getTimeSlot() + " was CANCELLED by " + by + "."
         );
 
-        return bookingRepository.save(booking);
+        listingScoreBoard.bookingStatusChanged(booking.getListingId(), t.from(), BookingStatus.CANCELLED);
+        return booking;
     }
 
-    private Booking getBooking(Long id) {
-        return bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
+    // PROVIDER → month view: every day of the month from one grouped count and the resolved availability
+    public List<BookingCalendarDay> getProviderCalendar(Long providerId, String month) {
+        YearMonth ym;
+        try {
+            ym = YearMonth.parse(month);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("month must look like 2026-11");
+        }
+
+        Map<LocalDate, ProviderAvailabilityService.EffectiveDay> offered =
+                providerAvailabilityService.resolve(providerId, ym.atDay(1), ym.atEndOfMonth());
+
+        Map<LocalDate, Map<BookingStatus, Long>> counts = new HashMap<>();
+        for (Object[] row : bookingRepository.countByDateAndStatus(providerId, ym.atDay(1), ym.atEndOfMonth())) {
+            counts.computeIfAbsent((LocalDate) row[0], d -> new EnumMap<>(BookingStatus.class))
+                    .put((BookingStatus) row[1], (Long) row[2]);
+        }
+
+        List<BookingCalendarDay> days = new ArrayList<>();
+        for (LocalDate date = ym.atDay(1); !date.isAfter(ym.atEndOfMonth()); date = date.plusDays(1)) {
+            Map<BookingStatus, Long> statusCounts = counts.getOrDefault(date, Map.of());
+            long booked = statusCounts.entrySet().stream()
+                    .filter(e -> e.getKey() != BookingStatus.CANCELLED)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            days.add(new BookingCalendarDay(date, offered.get(date).slotCount(), booked, statusCounts));
+        }
+        return days;
     }
 
-    public List<CustomerBookingResponse> getCustomerBookings(Long customerId) {
+    // PROVIDER → CONFIRM / COMPLETE / CANCEL many bookings: one update, one notification batch
+    @Transactional
+    public List<BulkBookingResult> bulkTransition(Long providerId, BulkBookingRequest req, BookingStatus to) {
+        if (req.getBookingIds() == null || req.getBookingIds().isEmpty()) {
+            throw new RuntimeException("bookingIds is required");
+        }
+        List<Long> ids = req.getBookingIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_BULK_BOOKINGS) {
+            throw new RuntimeException("At most " + MAX_BULK_BOOKINGS + " bookings per request");
+        }
 
-        List<Booking> bookings = bookingRepository.findByCustomerId(customerId);
+        Map<Long, BookingStateMachine.Transition> moved = bookingStateMachine.moveAll(providerId, ids, to);
+        Map<Long, BookingStatus> skipped = bookingStateMachine.currentStatus(
+                providerId, ids.stream().filter(id -> !moved.containsKey(id)).toList());
+
+        List<Notification> notifications = new ArrayList<>();
+        for (BookingStateMachine.Transition t : moved.values()) {
+            Booking booking = t.booking();
+            Notification n = new Notification();
+            n.setUserId(booking.getCustomerId());
+            n.setMessage(to == BookingStatus.CANCELLED
+                    ? "Your booking on " + booking.getBookingDate() + " at " + booking.getTimeSlot() + " was CANCELLED by Provider."
+                    : "Your booking on " + booking.getBookingDate() + " at " + booking.getTimeSlot() + " is " + to + ".");
+            notifications.add(n);
+            if (to == BookingStatus.CANCELLED) {
+                slotReservationEngine.releaseAfterCommit(booking.getProviderId(), booking.getBookingDate(), booking.getTimeSlot());
+            }
+        }
+        notificationService.sendNotifications(notifications);
 
-        return bookings.stream().map(booking -> {
+        moved.values().forEach(t -> listingScoreBoard.bookingStatusChanged(t.booking().getListingId(), t.from(), to));
+
+        return ids.stream().map(id -> {
+            if (moved.containsKey(id)) return new BulkBookingResult(id, true, to.name(), null);
+            BookingStatus current = skipped.get(id);
+            return current == null
+                    ? new BulkBookingResult(id, false, null, "Booking not found")
+                    : new BulkBookingResult(id, false, current.name(), BookingStateMachine.rejection(to, current));
+        }).toList();
+    }
 
-            Listing listing = listingRepository
-                    .findById(booking.getListingId())
-                    .orElseThrow();
+    // Newest booking date first, one keyset page at a time
+    public PageResponse<CustomerBookingResponse> getCustomerBookings(Long customerId, BookingPageRequest req) {
+        int size = pageSize(req.getSize());
+        Cursor after = decodeCursor(req.getCursor());
+        List<Booking> bookings = bookingRepository.findCustomerPage(
+                customerId, req.getStatus(), req.getFrom(), req.getTo(),
+                after != null ? after.bookingDate() : null, after != null ? after.id() : null,
+                Limit.of(size + 1));
+        String nextCursor = nextCursor(bookings, size);
+        return new PageResponse<>(toCustomerResponses(bookings.subList(0, Math.min(size, bookings.size()))), nextCursor);
+    }
 
-            User provider = userRepository
-                    .findById(booking.getProviderId())
-                    .orElseThrow();
+    public PageResponse<ProviderBookingResponse> getProviderBookings(Long providerId, BookingPageRequest req) {
+        int size = pageSize(req.getSize());
+        Cursor after = decodeCursor(req.getCursor());
+        List<Booking> bookings = bookingRepository.findProviderPage(
+                providerId, req.getStatus(), req.getFrom(), req.getTo(),
+                after != null ? after.bookingDate() : null, after != null ? after.id() : null,
+                Limit.of(size + 1));
+        String nextCursor = nextCursor(bookings, size);
+        return new PageResponse<>(toProviderResponses(bookings.subList(0, Math.min(size, bookings.size()))), nextCursor);
+    }
+
+    private List<CustomerBookingResponse> toCustomerResponses(List<Booking> bookings) {
+        Map<Long, Listing> listings = listingsOf(bookings);
+        Map<Long, User> providers = usersById(bookings.stream().map(Booking::getProviderId).toList());
+
+        return bookings.stream().map(booking -> {
+
+            Listing listing = required(listings, booking.getListingId(), "Listing not found");
+            User provider = required(providers, booking.getProviderId(), "Provider not found");
 
             CustomerBookingResponse res = new CustomerBookingResponse();
             res.setBookingId(booking.getId());
@@ -169,19 +320,14 @@ public class BookingService {
         }).toList();
     }
 
-    public List<ProviderBookingResponse> getProviderBookings(Long providerId) {
-
-        List<Booking> bookings = bookingRepository.findByProviderId(providerId);
+    private List<ProviderBookingResponse> toProviderResponses(List<Booking> bookings) {
+        Map<Long, Listing> listings = listingsOf(bookings);
+        Map<Long, User> customers = usersById(bookings.stream().map(Booking::getCustomerId).toList());
 
         return bookings.stream().map(booking -> {
 
-            User customer = userRepository
-                    .findById(booking.getCustomerId())
-                    .orElseThrow();
-
-            Listing listing = listingRepository
-                    .findById(booking.getListingId())
-                    .orElseThrow();
+            User customer = required(customers, booking.getCustomerId(), "Customer not found");
+            Listing listing = required(listings, booking.getListingId(), "Listing not found");
 
             ProviderBookingResponse res = new ProviderBookingResponse();
             res.setBookingId(booking.getId());
@@ -199,6 +345,86 @@ public class BookingService {
         }).toList();
     }
 
+    // one extra row was fetched to tell whether another page exists
+    private static String nextCursor(List<Booking> bookings, int size) {
+        if (bookings.size() <= size) return null;
+        Booking last = bookings.get(size - 1);
+        return CursorCodec.encode(last.getBookingDate(), last.getId());
+    }
 
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null) return null;
+        String[] parts = CursorCodec.decode(cursor, 2);
+        try {
+            return new Cursor(LocalDate.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null) return DEFAULT_PAGE_SIZE;
+        if (size <= 0) throw new RuntimeException("size must be positive");
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // One query for the listings of all the bookings instead of one per booking
+    private Map<Long, Listing> listingsOf(List<Booking> bookings) {
+        return listingRepository.findAllById(bookings.stream().map(Booking::getListingId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+    }
+
+    private Map<Long, User> usersById(List<Long> ids) {
+        return userRepository.findAllById(ids.stream().distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
 
+    private static <T> T required(Map<Long, T> byId, Long id, String message) {
+        T value = byId.get(id);
+        if (value == null) throw new RuntimeException(message);
+        return value;
+    }
+
+    // Explicit slots plus the expanded recurrence, by date in calendar order
+    private static NavigableMap<LocalDate, Set<String>> seriesSlots(CreateBookingSeriesRequest req) {
+        List<CreateBookingSeriesRequest.Slot> requested = new ArrayList<>();
+        if (req.getSlots() != null) requested.addAll(req.getSlots());
+
+        if (req.getStartDate() != null || req.getOccurrences() != null) {
+            if (req.getStartDate() == null || req.getTimeSlot() == null || req.getOccurrences() == null
+                    || req.getOccurrences() < 1) {
+                throw new RuntimeException("Recurrence needs startDate, timeSlot and occurrences >= 1");
+            }
+            int everyWeeks = req.getEveryWeeks() == null ? 1 : req.getEveryWeeks();
+            if (everyWeeks < 1) throw new RuntimeException("everyWeeks must be >= 1");
+            if (req.getOccurrences() > MAX_SERIES_BOOKINGS) {
+                throw new RuntimeException("At most " + MAX_SERIES_BOOKINGS + " bookings per series");
+            }
+            for (int i = 0; i < req.getOccurrences(); i++) {
+                CreateBookingSeriesRequest.Slot slot = new CreateBookingSeriesRequest.Slot();
+                slot.setBookingDate(req.getStartDate().plusWeeks((long) i * everyWeeks));
+                slot.setTimeSlot(req.getTimeSlot());
+                requested.add(slot);
+            }
+        }
+
+        if (requested.isEmpty()) throw new RuntimeException("No slots requested");
+        if (requested.size() > MAX_SERIES_BOOKINGS) {
+            throw new RuntimeException("At most " + MAX_SERIES_BOOKINGS + " bookings per series");
+        }
+
+        NavigableMap<LocalDate, Set<String>> slotsByDate = new TreeMap<>();
+        for (CreateBookingSeriesRequest.Slot slot : requested) {
+            if (slot.getBookingDate() == null || slot.getTimeSlot() == null) {
+                throw new RuntimeException("Every slot needs bookingDate and timeSlot");
+            }
+            if (!slotsByDate.computeIfAbsent(slot.getBookingDate(), d -> new TreeSet<>())
+                    .add(TimeSlots.normalize(slot.getTimeSlot()))) {
+                throw new RuntimeException("Slot requested twice: " + slot.getBookingDate() + " " + slot.getTimeSlot());
+            }
+        }
+        return slotsByDate;
+    }
 }
@@ -0,0 +1,168 @@
+package com.example.backend.services;
+
+import com.example.backend.entity.Booking;
+import com.example.backend.enums.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Booking status transitions, each applied as a single conditional UPDATE that only matches
+ * while the booking is still in an allowed source status. Of two racing requests (say a confirm
+ * and a cancel) exactly one changes the row; the other is told what the booking became.
+ * Bulk moves do the same for many bookings of one provider in a single statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingStateMachine {
+
+    // target status -> statuses it may be reached from
+    private static final Map<BookingStatus, List<BookingStatus>> SOURCES = Map.of(
+            BookingStatus.CONFIRMED, List.of(BookingStatus.PENDING),
+            BookingStatus.COMPLETED, List.of(BookingStatus.CONFIRMED),
+            BookingStatus.CANCELLED, List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED)
+    );
+
+    // One round trip whatever the outcome: the row is locked, moved only from an allowed status, and
+    // its status is returned either way (moved columns null when it was not moved); no row, no booking
+    private static final String MOVE = """
+            WITH old AS (
+                SELECT id, status FROM bookings
+                WHERE id = :id
+                FOR UPDATE
+            ), moved AS (
+                UPDATE bookings b SET status = :to
+                FROM old
+                WHERE b.id = old.id AND old.status IN (:from)
+                RETURNING b.id, b.customer_id, b.provider_id, b.listing_id, b.booking_date, b.time_slot,
+                          b.created_at, old.status AS previous
+            )
+            SELECT moved.*, old.status AS current
+            FROM old LEFT JOIN moved ON moved.id = old.id
+            """;
+
+    // locks the matching rows first so RETURNING can report the status each one left
+    private static final String BULK_UPDATE = """
+            WITH old AS (
+                SELECT id, status FROM bookings
+                WHERE id IN (:ids) AND provider_id = :providerId AND status IN (:from)
+                FOR UPDATE
+            )
+            UPDATE bookings b SET status = :to
+            FROM old
+            WHERE b.id = old.id
+            RETURNING b.id, b.customer_id, b.provider_id, b.listing_id, b.booking_date, b.time_slot,
+                      b.created_at, old.status AS previous
+            """;
+
+    // oldest expired holds first; rows another sweep or request has locked are left for the next batch
+    private static final String EXPIRE_PENDING = """
+            WITH expired AS (
+                SELECT id FROM bookings
+                WHERE status = 'PENDING' AND created_at < :cutoff
+                ORDER BY created_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE bookings b SET status = 'CANCELLED'
+            FROM expired
+            WHERE b.id = expired.id
+            RETURNING b.id, b.customer_id, b.provider_id, b.listing_id, b.booking_date, b.time_slot,
+                      b.created_at, 'PENDING' AS previous
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // The booking as updated and the status it left
+    public record Transition(Booking booking, BookingStatus from) {
+    }
+
+    public Transition move(Long bookingId, BookingStatus to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", bookingId)
+                .addValue("from", SOURCES.get(to).stream().map(Enum::name).toList())
+                .addValue("to", to.name());
+
+        return jdbcTemplate.query(MOVE, params, rs -> {
+            if (!rs.next()) {
+                throw new RuntimeException("Booking not found");
+            }
+            if (rs.getObject("id") == null) {
+                throw new RuntimeException(rejection(to, BookingStatus.valueOf(rs.getString("current"))));
+            }
+            return transition(rs, to);
+        });
+    }
+
+    // Moves every listed booking of the provider that is in an allowed source status; keyed by booking id
+    public Map<Long, Transition> moveAll(Long providerId, Collection<Long> bookingIds, BookingStatus to) {
+        Map<Long, Transition> moved = new HashMap<>();
+        if (bookingIds.isEmpty()) return moved;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", bookingIds)
+                .addValue("providerId", providerId)
+                .addValue("from", SOURCES.get(to).stream().map(Enum::name).toList())
+                .addValue("to", to.name());
+
+        jdbcTemplate.query(BULK_UPDATE, params, rs -> {
+            Transition t = transition(rs, to);
+            moved.put(t.booking().getId(), t);
+        });
+        return moved;
+    }
+
+    // Cancels up to `limit` bookings left PENDING since before the cutoff
+    public List<Booking> expirePending(LocalDateTime cutoff, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(EXPIRE_PENDING, params, (rs, i) -> transition(rs, BookingStatus.CANCELLED).booking());
+    }
+
+    // Current status of the provider's bookings among bookingIds, read in one query (to explain what moveAll skipped)
+    public Map<Long, BookingStatus> currentStatus(Long providerId, Collection<Long> bookingIds) {
+        Map<Long, BookingStatus> statuses = new HashMap<>();
+        if (bookingIds.isEmpty()) return statuses;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", bookingIds)
+                .addValue("providerId", providerId);
+        jdbcTemplate.query("SELECT id, status FROM bookings WHERE id IN (:ids) AND provider_id = :providerId", params,
+                rs -> {
+                    statuses.put(rs.getLong("id"), BookingStatus.valueOf(rs.getString("status")));
+                });
+        return statuses;
+    }
+
+    private static Transition transition(ResultSet rs, BookingStatus to) throws SQLException {
+        Booking b = new Booking();
+        b.setId(rs.getLong("id"));
+        b.setCustomerId(rs.getObject("customer_id", Long.class));
+        b.setProviderId(rs.getObject("provider_id", Long.class));
+        b.setListingId(rs.getObject("listing_id", Long.class));
+        b.setBookingDate(rs.getObject("booking_date", LocalDate.class));
+        b.setTimeSlot(rs.getString("time_slot"));
+        b.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        b.setStatus(to);
+        return new Transition(b, BookingStatus.valueOf(rs.getString("previous")));
+    }
+
+    public static String rejection(BookingStatus to, BookingStatus current) {
+        return switch (to) {
+            case CONFIRMED -> "Only pending bookings can be confirmed";
+            case COMPLETED -> "Only confirmed bookings can be completed";
+            case CANCELLED -> current == BookingStatus.COMPLETED
+                    ? "Completed bookings cannot be cancelled"
+                    : "Booking is already cancelled";
+            default -> "Booking cannot be moved to " + to;
+        };
+    }
+}
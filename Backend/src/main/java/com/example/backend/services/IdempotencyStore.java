@@ -0,0 +1,88 @@
+package com.example.backend.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Results of recent POSTs by their client-supplied Idempotency-Key, so a retried request gets
+ * the first attempt's response back instead of running again. A retry that arrives while the
+ * first attempt is still running waits for it. Failed attempts are forgotten and may be retried.
+ * Bounded LRU with a TTL; keys only live in this instance.
+ */
+@Component
+public class IdempotencyStore {
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private record Entry(Object request, CompletableFuture<Object> result, long expiresAt) {
+    }
+
+    // Runs action once per (scope, key); without a key it simply runs. scope keeps one client's keys
+    // apart from another's, request must equal the original one for the stored result to be replayed.
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Object request, Supplier<T> action) {
+        if (key == null || key.isBlank()) return action.get();
+
+        String id = scope + ":" + key;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        Entry existing;
+        synchronized (this) {
+            existing = entries.get(id);
+            if (existing != null && existing.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(id);
+                existing = null;
+            }
+            if (existing == null) {
+                entries.put(id, new Entry(request, mine, System.currentTimeMillis() + ttlSeconds * 1000));
+                trim();
+            }
+        }
+
+        if (existing != null) {
+            if (!Objects.equals(existing.request(), request)) {
+                throw new RuntimeException("Idempotency-Key was already used for a different request");
+            }
+            try {
+                return (T) existing.result().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException r ? r : e;
+            }
+        }
+
+        try {
+            T result = action.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                Entry current = entries.get(id);
+                if (current != null && current.result() == mine) entries.remove(id);
+            }
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Caller holds the monitor
+    private void trim() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.backend.services;
+
+import com.example.backend.entity.Listing;
+import com.example.backend.entity.User;
+import com.example.backend.repositories.ListingRepository;
+import com.example.backend.repositories.UserRepository;
+import com.example.backend.utility.GeoUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid of approved listings keyed by their provider's permanent location.
+ * Nearest-listing queries walk outwards ring by ring from the caller's cell and stop as
+ * soon as no unvisited cell can hold a closer listing, so search cost follows local
+ * density instead of category size. A radius turns the walk into a bounding-box prefilter:
+ * only cells overlapping the box are visited and measured exactly. Pages continue after a
+ * (distance, listing id) key; rings lying entirely before that key are skipped without being
+ * read, so deep pages cost the same as the first one. Columns wrap around the antimeridian, so
+ * cells either side of lng ±180 are neighbours.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingGeoIndex {
+
+    private final ListingRepository listingRepository;
+    private final UserRepository userRepository;
+    private final SearchResultCache searchResultCache;
+
+    @Value("${search.geo-index.cell-degrees:0.05}")
+    private double cellDegrees;
+
+    // grid width in cells; column indexes are taken modulo it
+    private long columns;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Map<Long, List<Entry>>> cellsByCategory = new HashMap<>();
+
+    public record Hit(Long listingId, Long providerId, double distanceKm) {
+    }
+
+    private record Entry(Long listingId, Long providerId, Long categoryId, double lat, double lng) {
+    }
+
+    private static final Comparator<Hit> NEAREST_FIRST =
+            Comparator.comparingDouble(Hit::distanceKm).thenComparing(Hit::listingId);
+
+    @PostConstruct
+    public void load() {
+        columns = (long) Math.ceil(360 / cellDegrees - 1e-9);
+        List<Object[]> rows = listingRepository.findApprovedListingLocations();
+
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            cellsByCategory.clear();
+            for (Object[] row : rows) {
+                Double lat = (Double) row[3];
+                Double lng = (Double) row[4];
+                if (row[2] == null || lat == null || lng == null) continue;
+                add(new Entry((Long) row[0], (Long) row[1], (Long) row[2], lat, lng));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-index a listing after it was created, edited, approved or rejected
+    public void index(Listing listing) {
+        User provider = Boolean.TRUE.equals(listing.getIsApproved())
+                ? userRepository.findById(listing.getProviderId()).orElse(null)
+                : null;
+
+        lock.writeLock().lock();
+        try {
+            removeEntry(listing.getId());
+            if (provider != null) {
+                addIfLocated(listing, provider);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long listingId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Move every approved listing of a provider after their permanent location changed
+    public void relocateProvider(User provider) {
+        List<Listing> listings = listingRepository.findByProviderId(provider.getId());
+
+        lock.writeLock().lock();
+        try {
+            for (Listing listing : listings) {
+                removeEntry(listing.getId());
+                if (Boolean.TRUE.equals(listing.getIsApproved())) {
+                    addIfLocated(listing, provider);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // radiusKm may be null for an unbounded search, after null for the first page
+    public List<Hit> nearest(double lat, double lng, Long categoryId, Double radiusKm, Hit after, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Long, List<Entry>> cells = cellsByCategory.get(categoryId);
+            if (cells == null) return List.of();
+            return walk(Map.of(categoryId, cells), lat, lng, radiusKm, after, limit).get(categoryId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // First page of several categories from a single ring walk over the same snapshot of the index
+    public Map<Long, List<Hit>> nearestPerCategory(double lat, double lng, Collection<Long> categoryIds,
+                                                   Double radiusKm, int limit) {
+        Map<Long, List<Hit>> hits = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Map<Long, List<Entry>>> cells = new HashMap<>();
+            for (Long categoryId : categoryIds) {
+                hits.put(categoryId, List.of());
+                Map<Long, List<Entry>> categoryCells = cellsByCategory.get(categoryId);
+                if (categoryCells != null) cells.put(categoryId, categoryCells);
+            }
+            hits.putAll(walk(cells, lat, lng, radiusKm, null, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits;
+    }
+
+    // Ring walk over the cells of one or more categories, each keeping its own best hits: every
+    // visited grid cell is read from each category still searching, and a category stops once no
+    // unvisited cell can improve it. Caller holds the read lock
+    private Map<Long, List<Hit>> walk(Map<Long, Map<Long, List<Entry>>> cellsByCategoryId, double lat, double lng,
+                                      Double radiusKm, Hit after, int limit) {
+        Map<Long, List<Hit>> hits = new HashMap<>();
+        if (limit <= 0) {
+            cellsByCategoryId.keySet().forEach(categoryId -> hits.put(categoryId, List.of()));
+            return hits;
+        }
+
+        double maxKm = radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY;
+        CellBox box = radiusKm != null ? boundingBox(lat, lng, radiusKm) : null;
+
+        // max-heaps holding the best `limit` hits seen so far, for the categories still searching
+        Map<Long, PriorityQueue<Hit>> best = new HashMap<>();
+        Map<Long, PriorityQueue<Hit>> searching = new HashMap<>();
+        for (Long categoryId : cellsByCategoryId.keySet()) {
+            PriorityQueue<Hit> heap = new PriorityQueue<>(NEAREST_FIRST.reversed());
+            best.put(categoryId, heap);
+            searching.put(categoryId, heap);
+        }
+        long row = cellRow(lat);
+        long col = cellCol(lng);
+
+        int firstRing = 0;
+        if (after != null) {
+            long occupied = occupiedCells(cellsByCategoryId, searching.keySet());
+            while (!ringCoversAll(firstRing, occupied)
+                    && farthestCornerKm(lat, lng, row, col, firstRing) < after.distanceKm()) {
+                firstRing++;
+            }
+        }
+
+        for (int ring = firstRing; !searching.isEmpty(); ring++) {
+            if (ringCoversAll(ring, occupiedCells(cellsByCategoryId, searching.keySet()))) {
+                // the ring is wider than the occupied cells or the grid: finish with a direct scan
+                for (Map.Entry<Long, PriorityQueue<Hit>> category : searching.entrySet()) {
+                    for (Map.Entry<Long, List<Entry>> cell : cellsByCategoryId.get(category.getKey()).entrySet()) {
+                        long r = cell.getKey() >> 32;
+                        long c = (int) (long) cell.getKey();
+                        if (Math.max(Math.abs(r - row), colDistance(c, col)) >= ring
+                                && (box == null || box.contains(r, c))) {
+                            offer(category.getValue(), cell.getValue(), lat, lng, maxKm, after, limit);
+                        }
+                    }
+                }
+                break;
+            }
+
+            for (long r = row - ring; r <= row + ring; r++) {
+                long step = (r == row - ring || r == row + ring) ? 1 : 2L * ring;
+                for (long c = col - ring; c <= col + ring; c += step) {
+                    long key = cellKey(r, Math.floorMod(c, columns));
+                    for (Map.Entry<Long, PriorityQueue<Hit>> category : searching.entrySet()) {
+                        List<Entry> cell = cellsByCategoryId.get(category.getKey()).get(key);
+                        if (cell != null) offer(category.getValue(), cell, lat, lng, maxKm, after, limit);
+                    }
+                }
+            }
+
+            double lowerBound = unvisitedLowerBoundKm(lat, lng, row, col, ring);
+            searching.values().removeIf(heap -> lowerBound > maxKm
+                    || (heap.size() == limit && heap.peek().distanceKm() <= lowerBound));
+        }
+
+        best.forEach((categoryId, heap) -> {
+            List<Hit> sorted = new ArrayList<>(heap);
+            sorted.sort(NEAREST_FIRST);
+            hits.put(categoryId, sorted);
+        });
+        return hits;
+    }
+
+    // Nearest among a known set of listings (e.g. text matches); categoryId may be null for all categories
+    public List<Hit> nearestAmong(Set<Long> listingIds, double lat, double lng, Long categoryId,
+                                  Double radiusKm, Hit after, int limit) {
+        if (limit <= 0) return List.of();
+        double maxKm = radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY;
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Hit> best = new PriorityQueue<>(NEAREST_FIRST.reversed());
+            List<Entry> candidates = new ArrayList<>();
+            for (Long id : listingIds) {
+                Entry e = entries.get(id);
+                if (e != null && (categoryId == null || categoryId.equals(e.categoryId()))) {
+                    candidates.add(e);
+                }
+            }
+            offer(best, candidates, lat, lng, maxKm, after, limit);
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(NEAREST_FIRST);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void offer(PriorityQueue<Hit> best, List<Entry> cell, double lat, double lng,
+                       double maxKm, Hit after, int limit) {
+        for (Entry e : cell) {
+            Hit hit = new Hit(e.listingId(), e.providerId(), GeoUtil.distanceKm(lat, lng, e.lat(), e.lng()));
+            if (hit.distanceKm() > maxKm || (after != null && NEAREST_FIRST.compare(hit, after) <= 0)) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (NEAREST_FIRST.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+    }
+
+    // Closest any point outside the (2 * ring + 1)^2 block of visited cells can be
+    private double unvisitedLowerBoundKm(double lat, double lng, long row, long col, int ring) {
+        double south = (row - ring) * cellDegrees - 90;
+        double north = (row + ring + 1) * cellDegrees - 90;
+        double west = (col - ring) * cellDegrees - 180;
+        double east = (col + ring + 1) * cellDegrees - 180;
+
+        double bound = Double.POSITIVE_INFINITY;
+        if (north < 90) bound = Math.min(bound, GeoUtil.EARTH_RADIUS_KM * Math.toRadians(north - lat));
+        if (south > -90) bound = Math.min(bound, GeoUtil.EARTH_RADIUS_KM * Math.toRadians(lat - south));
+        if (east - west < 360) {
+            // the unvisited longitudes lie between east and west + 360, whichever way round is shorter
+            bound = Math.min(bound, GeoUtil.distanceToMeridianKm(lat, Math.min(east - lng, 360 - (east - lng))));
+            bound = Math.min(bound, GeoUtil.distanceToMeridianKm(lat, Math.min(lng - west, 360 - (lng - west))));
+        }
+        return bound;
+    }
+
+    // Farthest any point inside the (2 * ring + 1)^2 block around the caller's cell can be
+    private double farthestCornerKm(double lat, double lng, long row, long col, int ring) {
+        double south = Math.max(-90, (row - ring) * cellDegrees - 90);
+        double north = Math.min(90, (row + ring + 1) * cellDegrees - 90);
+        double west = (col - ring) * cellDegrees - 180;
+        double east = (col + ring + 1) * cellDegrees - 180;
+        return Math.max(
+                Math.max(GeoUtil.distanceKm(lat, lng, south, west), GeoUtil.distanceKm(lat, lng, south, east)),
+                Math.max(GeoUtil.distanceKm(lat, lng, north, west), GeoUtil.distanceKm(lat, lng, north, east)));
+    }
+
+    // Grid cells covering the lat/lng box that encloses the search circle
+    private CellBox boundingBox(double lat, double lng, double radiusKm) {
+        double dLat = Math.toDegrees(radiusKm / GeoUtil.EARTH_RADIUS_KM);
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(lat) + dLat)));
+        double dLng = Math.min(180, dLat / cosLat);
+        return new CellBox(cellRow(lat - dLat), cellRow(lat + dLat),
+                unwrappedCol(lng - dLng), unwrappedCol(lng + dLng), columns);
+    }
+
+    // minCol..maxCol may run past either end of the grid and wrap
+    private record CellBox(long minRow, long maxRow, long minCol, long maxCol, long columns) {
+        boolean contains(long row, long col) {
+            return row >= minRow && row <= maxRow
+                    && (maxCol - minCol + 1 >= columns || Math.floorMod(col - minCol, columns) <= maxCol - minCol);
+        }
+    }
+
+    private static long ringCellCount(int ring) {
+        return ring == 0 ? 1 : 8L * ring;
+    }
+
+    // Past this ring the walk would revisit cells, either because it wrapped all the way round or
+    // because reading the occupied cells directly is cheaper
+    private boolean ringCoversAll(int ring, long occupiedCells) {
+        return ringCellCount(ring) > occupiedCells || 2L * ring + 1 > columns;
+    }
+
+    private static long occupiedCells(Map<Long, Map<Long, List<Entry>>> cellsByCategoryId, Set<Long> categoryIds) {
+        long occupied = 0;
+        for (Long categoryId : categoryIds) occupied += cellsByCategoryId.get(categoryId).size();
+        return occupied;
+    }
+
+    // Columns apart going the shorter way round
+    private long colDistance(long a, long b) {
+        long d = Math.floorMod(a - b, columns);
+        return Math.min(d, columns - d);
+    }
+
+    private void addIfLocated(Listing listing, User provider) {
+        if (listing.getCategoryId() == null
+                || provider.getPermanentLatitude() == null
+                || provider.getPermanentLongitude() == null) {
+            return;
+        }
+        Entry entry = new Entry(listing.getId(), provider.getId(), listing.getCategoryId(),
+                provider.getPermanentLatitude(), provider.getPermanentLongitude());
+        add(entry);
+        searchResultCache.invalidate(entry.categoryId(), entry.lat(), entry.lng(), entry.listingId());
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.listingId(), entry);
+        cellsByCategory
+                .computeIfAbsent(entry.categoryId(), k -> new HashMap<>())
+                .computeIfAbsent(cellKey(cellRow(entry.lat()), cellCol(entry.lng())), k -> new ArrayList<>())
+                .add(entry);
+    }
+
+    private void removeEntry(Long listingId) {
+        Entry entry = entries.remove(listingId);
+        if (entry == null) return;
+
+        Map<Long, List<Entry>> cells = cellsByCategory.get(entry.categoryId());
+        long key = cellKey(cellRow(entry.lat()), cellCol(entry.lng()));
+        List<Entry> cell = cells.get(key);
+        cell.removeIf(e -> e.listingId().equals(listingId));
+        if (cell.isEmpty()) cells.remove(key);
+        if (cells.isEmpty()) cellsByCategory.remove(entry.categoryId());
+
+        searchResultCache.invalidate(entry.categoryId(), entry.lat(), entry.lng(), listingId);
+    }
+
+    private long cellRow(double lat) {
+        return (long) Math.floor((lat + 90) / cellDegrees);
+    }
+
+    private long cellCol(double lng) {
+        return Math.floorMod(unwrappedCol(lng), columns);
+    }
+
+    private long unwrappedCol(double lng) {
+        return (long) Math.floor((lng + 180) / cellDegrees);
+    }
+
+    private static long cellKey(long row, long col) {
+        return (row << 32) | (col & 0xffffffffL);
+    }
+}
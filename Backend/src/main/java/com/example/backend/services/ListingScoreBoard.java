@@ -0,0 +1,176 @@
+package com.example.backend.services;
+
+import com.example.backend.entity.Listing;
+import com.example.backend.enums.BookingStatus;
+import com.example.backend.repositories.BookingRepository;
+import com.example.backend.repositories.ListingRepository;
+import com.example.backend.repositories.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-listing ranking inputs (review totals, confirmed/completed booking count, creation time),
+ * loaded once with grouped queries and then kept current from review and booking events as they
+ * commit, so a relevance-ranked search never aggregates reviews or bookings itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingScoreBoard {
+
+    // same statuses BookingRepository.countBookingsByListing counts
+    private static final Set<BookingStatus> COUNTED = EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
+
+    // unrated listings start from this many virtual reviews of PRIOR_RATING
+    private static final double PRIOR_RATING = 3.0;
+    private static final double PRIOR_REVIEWS = 3;
+
+    private final ReviewRepository reviewRepository;
+    private final BookingRepository bookingRepository;
+    private final ListingRepository listingRepository;
+
+    @Value("${search.ranking.distance-weight:0.5}")
+    private double distanceWeight;
+
+    @Value("${search.ranking.rating-weight:0.25}")
+    private double ratingWeight;
+
+    @Value("${search.ranking.popularity-weight:0.15}")
+    private double popularityWeight;
+
+    @Value("${search.ranking.recency-weight:0.1}")
+    private double recencyWeight;
+
+    @Value("${search.ranking.distance-scale-km:5}")
+    private double distanceScaleKm;
+
+    @Value("${search.ranking.popularity-half-bookings:10}")
+    private double popularityHalfBookings;
+
+    @Value("${search.ranking.recency-days:90}")
+    private double recencyDays;
+
+    private final Map<Long, Stats> stats = new ConcurrentHashMap<>();
+
+    private static final class Stats {
+        long ratingSum;
+        long ratingCount;
+        long bookings;
+        LocalDateTime createdAt;
+    }
+
+    @PostConstruct
+    public void load() {
+        stats.clear();
+        for (Object[] row : listingRepository.findApprovedListingCreatedAt()) {
+            stats(((Long) row[0])).createdAt = (LocalDateTime) row[1];
+        }
+        for (Object[] row : reviewRepository.sumRatingsByListing()) {
+            if (row[0] == null) continue;
+            Stats s = stats((Long) row[0]);
+            s.ratingSum = (Long) row[1];
+            s.ratingCount = (Long) row[2];
+        }
+        for (Object[] row : bookingRepository.countBookingsByListing()) {
+            if (row[0] == null) continue;
+            stats((Long) row[0]).bookings = (Long) row[1];
+        }
+    }
+
+    public void listingChanged(Listing listing) {
+        Stats s = stats(listing.getId());
+        synchronized (s) {
+            s.createdAt = listing.getCreatedAt();
+        }
+    }
+
+    public void listingDeleted(Long listingId) {
+        stats.remove(listingId);
+    }
+
+    // Counted once the surrounding transaction commits, like the search index updates
+    public void reviewAdded(Long listingId, int rating) {
+        if (listingId == null) return;
+        afterCommit(() -> {
+            Stats s = stats(listingId);
+            synchronized (s) {
+                s.ratingSum += rating;
+                s.ratingCount++;
+            }
+        });
+    }
+
+    public void bookingStatusChanged(Long listingId, BookingStatus from, BookingStatus to) {
+        if (listingId == null) return;
+        int delta = (COUNTED.contains(to) ? 1 : 0) - (COUNTED.contains(from) ? 1 : 0);
+        if (delta == 0) return;
+        afterCommit(() -> {
+            Stats s = stats(listingId);
+            synchronized (s) {
+                s.bookings += delta;
+            }
+        });
+    }
+
+    // Average review rating, null when the listing has no reviews
+    public Double averageRating(Long listingId) {
+        Stats s = stats.get(listingId);
+        if (s == null) return null;
+        synchronized (s) {
+            return s.ratingCount == 0 ? null : (double) s.ratingSum / s.ratingCount;
+        }
+    }
+
+    // Blend of closeness, smoothed rating, popularity and freshness; every part is in [0, 1]
+    public double score(Long listingId, double distanceKm) {
+        double closeness = 1 / (1 + distanceKm / distanceScaleKm);
+
+        double rating = PRIOR_RATING;
+        double popularity = 0;
+        double recency = 0;
+
+        Stats s = stats.get(listingId);
+        if (s != null) {
+            synchronized (s) {
+                rating = (s.ratingSum + PRIOR_RATING * PRIOR_REVIEWS) / (s.ratingCount + PRIOR_REVIEWS);
+                popularity = s.bookings / (s.bookings + popularityHalfBookings);
+                if (s.createdAt != null) {
+                    double ageDays = Math.max(0, Duration.between(s.createdAt, LocalDateTime.now()).toHours() / 24.0);
+                    recency = Math.exp(-ageDays / recencyDays);
+                }
+            }
+        }
+
+        return distanceWeight * closeness
+                + ratingWeight * (rating / 5)
+                + popularityWeight * popularity
+                + recencyWeight * recency;
+    }
+
+    private Stats stats(Long listingId) {
+        return stats.computeIfAbsent(listingId, k -> new Stats());
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -20,6 +20,7 @@ public class ListingService {
     private final UserRepository userRepository;
     private final CloudinaryService cloudinaryService;
     private final NotificationService notificationService;
+    private final SearchIndexService searchIndexService;
 
     @Transactional
     public Listing createListing(Long providerId, CreateListingRequest request) {
@@ -64,11 +65,14 @@ public class ListingService {
             l.setImages(newUrl);
         }
 
-        return listingRepository.save(l);
+        Listing saved = listingRepository.save(l);
+        searchIndexService.listingChanged(saved);
+        return saved;
     }
 
     public void deleteListing(Long listingId) {
         listingRepository.deleteById(listingId);
+        searchIndexService.listingDeleted(listingId);
     }
 
     public List<Listing> getListingsByProvider(Long providerId) {
@@ -79,6 +83,7 @@ public class ListingService {
         return listingRepository.findById(id).orElseThrow(() -> new RuntimeException("Listing not found"));
     }
 
+    @Transactional
     public Listing setApproval(Long listingId, boolean approve) {
         Listing l = getListing(listingId);
         l.setIsApproved(approve);
@@ -96,6 +101,8 @@ public class ListingService {
             );
         }
 
-        return listingRepository.save(l);
+        Listing saved = listingRepository.save(l);
+        searchIndexService.listingChanged(saved);
+        return saved;
     }
 }
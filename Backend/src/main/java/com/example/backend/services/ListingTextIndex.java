@@ -0,0 +1,118 @@
+package com.example.backend.services;
+
+import com.example.backend.entity.Listing;
+import com.example.backend.repositories.ListingRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the title and description of approved listings. Terms live in a sorted
+ * map so every query word also matches as a prefix ("plumb" finds "plumber"); all query words
+ * must match.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingTextIndex {
+
+    private final ListingRepository listingRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByListing = new HashMap<>();
+
+    @PostConstruct
+    public void load() {
+        List<Listing> listings = listingRepository.findByIsApprovedTrue();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByListing.clear();
+            listings.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Listing listing) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(listing.getId());
+            if (Boolean.TRUE.equals(listing.getIsApproved())) {
+                add(listing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long listingId) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of listings matching every word of the query, each word as a prefix
+    public Set<Long> match(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) return Set.of();
+
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (String word : words) {
+                Set<Long> ids = new HashSet<>();
+                for (Set<Long> posting : postings.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+                    ids.addAll(posting);
+                }
+                if (result == null) {
+                    result = ids;
+                } else {
+                    result.retainAll(ids);
+                }
+                if (result.isEmpty()) break;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private void add(Listing listing) {
+        Set<String> terms = new HashSet<>(tokenize(listing.getTitle()));
+        terms.addAll(tokenize(listing.getDescription()));
+        if (terms.isEmpty()) return;
+
+        termsByListing.put(listing.getId(), terms);
+        for (String term : terms) {
+            postings.computeIfAbsent(term, k -> new HashSet<>()).add(listing.getId());
+        }
+    }
+
+    private void removeTerms(Long listingId) {
+        Set<String> terms = termsByListing.remove(listingId);
+        if (terms == null) return;
+
+        for (String term : terms) {
+            Set<Long> posting = postings.get(term);
+            posting.remove(listingId);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.backend.services;
+
+import com.example.backend.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transactional outbox for notifications. Callers append instead of inserting: the notification
+ * is written to the notification_outbox table in the caller's transaction, so it is kept exactly
+ * when the change it reports commits. A scheduled dispatcher moves rows into notifications a
+ * batch at a time, each batch one statement. A batch that breaks a constraint is retried row by
+ * row and the rows that still fail are set aside with their error instead of blocking the rest.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    // oldest first; rows another dispatcher is moving are skipped rather than waited for
+    private static final String MOVE = """
+            WITH sent AS (
+                DELETE FROM notification_outbox
+                WHERE id IN (
+                    SELECT id FROM notification_outbox
+                    WHERE failed_at IS NULL AND %s
+                    ORDER BY id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING user_id, message, created_at
+            )
+            INSERT INTO notifications (user_id, message, is_read, created_at)
+            SELECT user_id, message, false, created_at FROM sent
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notifications.outbox.batch-size:500}")
+    private int batchSize;
+
+    public void append(Notification notification) {
+        appendAll(List.of(notification));
+    }
+
+    public void appendAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO notification_outbox (user_id, message, created_at) VALUES (?, ?, ?)",
+                notifications,
+                batchSize,
+                (ps, n) -> {
+                    ps.setObject(1, n.getUserId(), Types.BIGINT);
+                    ps.setString(2, n.getMessage());
+                    ps.setTimestamp(3, Timestamp.valueOf(n.getCreatedAt() != null ? n.getCreatedAt() : LocalDateTime.now()));
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.flush-interval-ms:500}")
+    public void dispatch() {
+        int moved;
+        do {
+            try {
+                moved = transactionTemplate.execute(status -> jdbcTemplate.update(MOVE.formatted("TRUE"), batchSize));
+            } catch (DataIntegrityViolationException e) {
+                moved = dispatchOneByOne();
+            }
+        } while (moved == batchSize);
+    }
+
+    // Some row of the next batch cannot be written: move them singly and set the failing ones aside
+    private int dispatchOneByOne() {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM notification_outbox WHERE failed_at IS NULL ORDER BY id LIMIT ?", Long.class, batchSize);
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(MOVE.formatted("id = ?"), id, 1));
+            } catch (DataIntegrityViolationException e) {
+                jdbcTemplate.update("UPDATE notification_outbox SET failed_at = ?, error = ? WHERE id = ?",
+                        Timestamp.valueOf(LocalDateTime.now()), e.getMostSpecificCause().getMessage(), id);
+            }
+        }
+        return ids.size();
+    }
+}
@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.example.backend.enums.Role.SERVICE_PROVIDER;
@@ -18,12 +19,19 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final NotificationOutbox notificationOutbox;
 
+    // Written to the outbox in the caller's transaction, so it is kept exactly when the change it
+    // reports commits; callers must run in one, without it the row is written on its own
     public void sendNotification(Long userId, String message) {
         Notification n = new Notification();
         n.setUserId(userId);
         n.setMessage(message);
-        notificationRepository.save(n);
+        notificationOutbox.append(n);
+    }
+
+    public void sendNotifications(List<Notification> notifications) {
+        notificationOutbox.appendAll(notifications);
     }
 
     public List<Notification> getUserNotifications(Long userId) {
@@ -39,12 +47,14 @@ public class NotificationService {
     public void notifyAllProviders(String message) {
         List<User> providers = userRepository.findByRole(SERVICE_PROVIDER);
 
+        List<Notification> notifications = new ArrayList<>();
         for (User provider : providers) {
             Notification notification = new Notification();
             notification.setUserId(provider.getId());
             notification.setMessage(message);
             notification.setCreatedAt(LocalDateTime.now());
-            notificationRepository.save(notification);
+            notifications.add(notification);
         }
+        notificationOutbox.appendAll(notifications);
     }
 }
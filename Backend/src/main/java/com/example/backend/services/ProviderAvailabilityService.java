@@ -1,24 +1,85 @@
 package com.example.backend.services;
 
+import com.example.backend.dto.AvailabilityCacheStats;
+import com.example.backend.dto.AvailabilityOverrideRequest;
 import com.example.backend.dto.AvailabilityRequest;
+import com.example.backend.dto.DayAvailability;
+import com.example.backend.dto.FreeSlotsDay;
+import com.example.backend.dto.WeeklyAvailabilityRequest;
 import com.example.backend.entity.ProviderAvailability;
+import com.example.backend.entity.ProviderAvailabilityOverride;
 import com.example.backend.enums.DayEnum;
 import com.example.backend.repositories.BookingRepository;
+import com.example.backend.repositories.ProviderAvailabilityBatchRepository;
+import com.example.backend.repositories.ProviderAvailabilityOverrideRepository;
 import com.example.backend.repositories.ProviderAvailabilityRepository;
+import com.example.backend.utility.TimeSlots;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProviderAvailabilityService {
 
+    private static final int MAX_RANGE_DAYS = 366;
+
     private final ProviderAvailabilityRepository repository;
+    private final ProviderAvailabilityOverrideRepository overrideRepository;
     private final BookingRepository bookingRepository;
+    private final AvailabilityCache availabilityCache;
+    private final ProviderAvailabilityBatchRepository batchRepository;
+
+    // A date's availability: its weekly template row and override, either may be missing
+    public record EffectiveDay(LocalDate date, ProviderAvailability weekly, ProviderAvailabilityOverride override) {
+
+        // Grid mask of the slots offered, null when the template holds a slot off the grid
+        public Long mask() {
+            if (override != null && override.isClosed()) return 0L;
+            if (weekly != null && weekly.getSlotMask() == null) return null;
+            long base = weekly == null ? 0 : weekly.getSlotMask();
+            return override == null ? base : (base | override.getAddedMask()) & ~override.getRemovedMask();
+        }
+
+        public boolean offers(String slot) {
+            Long mask = mask();
+            if (mask != null) return TimeSlots.contains(mask, TimeSlots.bit(slot));
+
+            int bit = TimeSlots.bit(slot);
+            if (override != null) {
+                if (TimeSlots.contains(override.getRemovedMask(), bit)) return false;
+                if (TimeSlots.contains(override.getAddedMask(), bit)) return true;
+            }
+            return weekly.offers(slot);
+        }
+
+        public List<String> slots() {
+            Long mask = mask();
+            if (mask != null) return TimeSlots.labels(mask);
+
+            long removed = override == null ? 0 : override.getRemovedMask();
+            List<String> slots = new ArrayList<>();
+            for (String slot : TimeSlots.parse(weekly.getTimeSlots())) {
+                if (!TimeSlots.contains(removed, TimeSlots.bit(slot))) slots.add(slot);
+            }
+            if (override != null) {
+                for (String slot : TimeSlots.labels(override.getAddedMask() & ~removed)) {
+                    if (!slots.contains(slot)) slots.add(slot);
+                }
+            }
+            return slots;
+        }
+
+        public int slotCount() {
+            Long mask = mask();
+            return mask != null ? Long.bitCount(mask) : slots().size();
+        }
+    }
 
     public void saveOrUpdateAvailability(Long providerId, AvailabilityRequest req) {
 
@@ -28,43 +89,266 @@ public class ProviderAvailabilityService {
 
         availability.setProviderId(providerId);
         availability.setDay(req.getDay());
-        availability.setTimeSlots(String.join(",", req.getTimeSlots()));
+        availability.setTimeSlots(req.getTimeSlots().stream()
+                .map(TimeSlots::normalize)
+                .collect(Collectors.joining(",")));
 
         repository.save(availability);
+        availabilityCache.invalidate(providerId);
+    }
+
+    // Replaces the whole weekly template: only changed days are written, in one statement, and only
+    // if every booking from today on still falls on an offered slot
+    @Transactional
+    public int saveWeeklyAvailability(Long providerId, WeeklyAvailabilityRequest req) {
+        Map<DayEnum, List<String>> requested = req.getDays() == null ? Map.of() : req.getDays();
+
+        Map<DayEnum, ProviderAvailability> stored = new EnumMap<>(DayEnum.class);
+        for (ProviderAvailability a : repository.findByProviderId(providerId)) stored.put(a.getDay(), a);
+
+        Map<DayEnum, ProviderAvailability> week = new EnumMap<>(DayEnum.class);
+        List<ProviderAvailability> upserts = new ArrayList<>();
+        for (DayEnum day : DayEnum.values()) {
+            List<String> slots = requested.getOrDefault(day, List.of());
+            if (slots == null || slots.isEmpty()) continue;
+            String csv = slots.stream().map(TimeSlots::normalize).distinct().collect(Collectors.joining(","));
+            ProviderAvailability a = template(providerId, day, csv);
+            week.put(day, a);
+            if (!stored.containsKey(day) || !csv.equals(stored.get(day).getTimeSlots())) upserts.add(a);
+        }
+        List<DayEnum> removals = stored.keySet().stream().filter(day -> !week.containsKey(day)).toList();
+        if (upserts.isEmpty() && removals.isEmpty()) return 0;
+
+        requireFutureBookingsKept(providerId, week);
+        batchRepository.apply(providerId, upserts, removals);
+        availabilityCache.invalidate(providerId);
+        return upserts.size() + removals.size();
     }
 
     public ProviderAvailability getAvailability(Long providerId, DayEnum day) {
-        return repository.findByProviderIdAndDay(providerId, day)
+        return Optional.ofNullable(availabilityCache.weekly(providerId).get(day))
                 .orElseThrow(() -> new RuntimeException("Availability not set"));
     }
 
+    public AvailabilityCacheStats getCacheStats() {
+        return availabilityCache.stats();
+    }
+
+    // Every date from..to (inclusive) in order: the cached weekly template and the range's overrides in one query
+    public Map<LocalDate, EffectiveDay> resolve(Long providerId, LocalDate from, LocalDate to) {
+        Map<DayEnum, ProviderAvailability> weekly = availabilityCache.weekly(providerId);
+
+        Map<LocalDate, ProviderAvailabilityOverride> overrides = new HashMap<>();
+        for (ProviderAvailabilityOverride o : overrideRepository.findByProviderIdAndDateBetween(providerId, from, to)) {
+            overrides.put(o.getDate(), o);
+        }
+
+        Map<LocalDate, EffectiveDay> days = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            days.put(date, new EffectiveDay(date, weekly.get(DayEnum.of(date)), overrides.get(date)));
+        }
+        return days;
+    }
+
+    public EffectiveDay resolve(Long providerId, LocalDate date) {
+        return resolve(providerId, date, date).get(date);
+    }
+
+    public List<DayAvailability> getEffectiveAvailability(Long providerId, LocalDate from, LocalDate to) {
+        requireRange(from, to);
+        return resolve(providerId, from, to).values().stream()
+                .map(d -> new DayAvailability(d.date(), d.slots(), d.override() != null))
+                .toList();
+    }
+
+    // Offered slots minus those held by live bookings, per date; one bookings range query for the lot
+    public List<FreeSlotsDay> getFreeSlots(Long providerId, LocalDate from, LocalDate to) {
+        requireRange(from, to);
+        Map<LocalDate, EffectiveDay> days = resolve(providerId, from, to);
+
+        Map<LocalDate, Set<String>> booked = new HashMap<>();
+        for (Object[] row : bookingRepository.findBookedSlotsBetween(providerId, from, to)) {
+            booked.computeIfAbsent((LocalDate) row[0], d -> new HashSet<>()).add((String) row[1]);
+        }
+
+        List<FreeSlotsDay> free = new ArrayList<>(days.size());
+        for (EffectiveDay day : days.values()) {
+            Set<String> taken = booked.getOrDefault(day.date(), Set.of());
+            Long mask = day.mask();
+            List<String> slots = mask != null
+                    ? TimeSlots.labels(mask & ~gridMaskOf(taken))
+                    : day.slots().stream().filter(s -> !taken.contains(s)).toList();
+            free.add(new FreeSlotsDay(day.date(), slots));
+        }
+        return free;
+    }
+
+    // Adds, removes or closes slots on one date without touching the weekly template
+    public ProviderAvailabilityOverride saveOverride(Long providerId, LocalDate date, AvailabilityOverrideRequest req) {
+        long added = gridMask(req.getAddSlots());
+        long removed = gridMask(req.getRemoveSlots());
+        if ((added & removed) != 0) throw new RuntimeException("A slot cannot be both added and removed");
+
+        ProviderAvailabilityOverride override = overrideRepository.findByProviderIdAndDate(providerId, date)
+                .orElse(new ProviderAvailabilityOverride());
+        override.setProviderId(providerId);
+        override.setDate(date);
+        override.setClosed(req.isClosed());
+        override.setAddedMask(added);
+        override.setRemovedMask(removed);
+
+        requireBookedSlotsKept(providerId, new EffectiveDay(date, weeklyOn(providerId, date), override));
+        return overrideRepository.save(override);
+    }
+
+    // Back to the weekly template on that date
+    public void deleteOverride(Long providerId, LocalDate date) {
+        ProviderAvailabilityOverride override = overrideRepository.findByProviderIdAndDate(providerId, date)
+                .orElseThrow(() -> new RuntimeException("Override not found"));
+        requireBookedSlotsKept(providerId, new EffectiveDay(date, weeklyOn(providerId, date), null));
+        overrideRepository.delete(override);
+    }
+
+    // Providers (out of providerIds) with the slot - or any slot when null - still unbooked on date
+    public Set<Long> findProvidersFreeOn(Collection<Long> providerIds, LocalDate date, String slot) {
+        if (providerIds.isEmpty()) return Set.of();
+
+        Map<Long, Set<String>> booked = new HashMap<>();
+        for (Object[] row : bookingRepository.findBookedSlots(date, providerIds)) {
+            booked.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add((String) row[1]);
+        }
+
+        DayEnum dayOfWeek = DayEnum.of(date);
+        Map<Long, ProviderAvailability> weekly = new HashMap<>();
+        availabilityCache.weekly(providerIds).forEach((providerId, days) -> {
+            if (days.containsKey(dayOfWeek)) weekly.put(providerId, days.get(dayOfWeek));
+        });
+        Map<Long, ProviderAvailabilityOverride> overrides = new HashMap<>();
+        for (ProviderAvailabilityOverride o : overrideRepository.findByDateAndProviderIdIn(date, providerIds)) {
+            overrides.put(o.getProviderId(), o);
+        }
+
+        String wanted = TimeSlots.normalize(slot);
+        Set<Long> free = new HashSet<>();
+        for (Long providerId : providerIds) {
+            if (!weekly.containsKey(providerId) && !overrides.containsKey(providerId)) continue;
+            EffectiveDay day = new EffectiveDay(date, weekly.get(providerId), overrides.get(providerId));
+            Set<String> taken = booked.getOrDefault(providerId, Set.of());
+            Long mask = day.mask();
+            if (mask != null ? openOnGrid(mask, taken, wanted) : openAsText(day.slots(), taken, wanted)) {
+                free.add(providerId);
+            }
+        }
+        return free;
+    }
+
     public void removeTimeSlot(Long providerId, DayEnum day, String slot) {
 
         ProviderAvailability availability =
                 repository.findByProviderIdAndDay(providerId, day)
                         .orElseThrow(() -> new RuntimeException("Availability not found"));
 
-        // Check bookings
-        boolean hasBooking = bookingRepository
-                .existsByProviderIdAndBookingDateAndTimeSlot(
-                        providerId,
-                        LocalDate.now(), // actual date mapped from day
-                        slot
-                );
+        if (availability.getSlotMask() != null) {
+            int bit = TimeSlots.bit(slot);
+            if (!TimeSlots.contains(availability.getSlotMask(), bit)) throw new RuntimeException(" slot is not Found");
+            availability.setTimeSlots(String.join(",", TimeSlots.labels(availability.getSlotMask() & ~(1L << bit))));
+        } else {
+            List<String> slots = new ArrayList<>(TimeSlots.parse(availability.getTimeSlots()));
+            boolean flag=slots.remove(slot);
+            if(!flag)throw new RuntimeException(" slot is not Found");
+            availability.setTimeSlots(String.join(",", slots));
+        }
+
+        // Check bookings on every coming date of that weekday
+        Map<DayEnum, ProviderAvailability> week = new EnumMap<>(DayEnum.class);
+        week.putAll(availabilityCache.weekly(providerId));
+        week.put(day, template(providerId, day, availability.getTimeSlots()));
+        requireFutureBookingsKept(providerId, week);
+
+        repository.save(availability);
+        availabilityCache.invalidate(providerId);
+    }
+
+    private ProviderAvailability weeklyOn(Long providerId, LocalDate date) {
+        return availabilityCache.weekly(providerId).get(DayEnum.of(date));
+    }
+
+    // Every live booking from today on must still be offered under the new weekly template,
+    // its date's override applied: one bookings range query and one overrides query
+    private void requireFutureBookingsKept(Long providerId, Map<DayEnum, ProviderAvailability> week) {
+        LocalDate today = LocalDate.now();
+        List<Object[]> booked = bookingRepository.findBookedSlotsFrom(providerId, today);
+        if (booked.isEmpty()) return;
 
-        if (hasBooking) {
-            throw new RuntimeException("Cannot remove slot with active booking");
+        LocalDate last = booked.stream().map(row -> (LocalDate) row[0]).max(Comparator.naturalOrder()).get();
+        Map<LocalDate, ProviderAvailabilityOverride> overrides = new HashMap<>();
+        for (ProviderAvailabilityOverride o : overrideRepository.findByProviderIdAndDateBetween(providerId, today, last)) {
+            overrides.put(o.getDate(), o);
         }
 
+        for (Object[] row : booked) {
+            LocalDate date = (LocalDate) row[0];
+            String slot = (String) row[1];
+            if (!new EffectiveDay(date, week.get(DayEnum.of(date)), overrides.get(date)).offers(slot)) {
+                throw new RuntimeException("Cannot remove slot with active booking: " + date + " " + slot);
+            }
+        }
+    }
 
-        List<String> slots = new ArrayList<>(
-                Arrays.asList(availability.getTimeSlots().split(","))
-        );
+    private static ProviderAvailability template(Long providerId, DayEnum day, String csv) {
+        ProviderAvailability a = new ProviderAvailability();
+        a.setProviderId(providerId);
+        a.setDay(day);
+        a.setTimeSlots(csv);
+        a.setSlotMask(TimeSlots.encode(csv));
+        return a;
+    }
 
-        boolean flag=slots.remove(slot);
-        if(!flag)throw new RuntimeException(" slot is not Found");
-        availability.setTimeSlots(String.join(",", slots));
-        repository.save(availability);
+    private void requireBookedSlotsKept(Long providerId, EffectiveDay day) {
+        for (Object[] row : bookingRepository.findBookedSlotsOn(providerId, List.of(day.date()))) {
+            String booked = (String) row[1];
+            if (!day.offers(booked)) throw new RuntimeException("Cannot remove slot with active booking: " + booked);
+        }
+    }
+
+    private static void requireRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) throw new RuntimeException("from and to are required, from <= to");
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new RuntimeException("At most " + MAX_RANGE_DAYS + " days at a time");
+        }
+    }
+
+    // Grid bits of the given slots; slots off the grid are skipped
+    private static long gridMaskOf(Collection<String> slots) {
+        long mask = 0;
+        for (String slot : slots) {
+            int bit = TimeSlots.bit(slot);
+            if (bit >= 0) mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    private static long gridMask(List<String> slots) {
+        long mask = 0;
+        if (slots == null) return mask;
+        for (String slot : slots) {
+            int bit = TimeSlots.bit(slot);
+            if (bit < 0) throw new RuntimeException("Slot must be on the 30-minute grid: " + slot);
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    // Offered slots minus booked ones as one mask operation
+    private static boolean openOnGrid(long offered, Set<String> taken, String slot) {
+        long open = offered & ~gridMaskOf(taken);
+        return slot != null ? TimeSlots.contains(open, TimeSlots.bit(slot)) : open != 0;
+    }
+
+    private static boolean openAsText(List<String> slots, Set<String> taken, String slot) {
+        return slot != null
+                ? slots.contains(slot) && !taken.contains(slot)
+                : slots.stream().anyMatch(s -> !taken.contains(s));
     }
 
 }
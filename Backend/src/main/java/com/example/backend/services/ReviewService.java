@@ -8,6 +8,7 @@ import com.example.backend.repositories.BookingRepository;
 import com.example.backend.repositories.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,7 +19,9 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final BookingRepository bookingRepository;
     private final NotificationService notificationService;
+    private final ListingScoreBoard listingScoreBoard;
 
+    @Transactional
     public Review submitReview(CreateReviewRequest req) {
 
         // Ensure booking is completed
@@ -36,6 +39,7 @@ public class ReviewService {
         review.setComment(req.getComment());
 
         Review saved = reviewRepository.save(review);
+        listingScoreBoard.reviewAdded(booking.getListingId(), saved.getRating());
 
         // Notify Provider about rating
         notificationService.sendNotification(
@@ -0,0 +1,66 @@
+package com.example.backend.services;
+
+import com.example.backend.entity.Listing;
+import com.example.backend.entity.ServiceCategory;
+import com.example.backend.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Single entry point that keeps every in-memory search index in step with listing changes.
+// Inside a transaction the indexes are only touched once it commits, so a rollback leaves them as they were.
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+
+    private final ListingGeoIndex listingGeoIndex;
+    private final ListingTextIndex listingTextIndex;
+    private final ListingScoreBoard listingScoreBoard;
+    private final SuggestionIndex suggestionIndex;
+
+    // after a listing was created, edited, approved or rejected.
+    // The geo index goes last: it invalidates cached search pages once every index is current.
+    public void listingChanged(Listing listing) {
+        afterCommit(() -> {
+            listingTextIndex.index(listing);
+            listingScoreBoard.listingChanged(listing);
+            suggestionIndex.listingChanged(listing);
+            listingGeoIndex.index(listing);
+        });
+    }
+
+    public void listingDeleted(Long listingId) {
+        afterCommit(() -> {
+            listingTextIndex.remove(listingId);
+            listingScoreBoard.listingDeleted(listingId);
+            suggestionIndex.listingDeleted(listingId);
+            listingGeoIndex.remove(listingId);
+        });
+    }
+
+    public void providerMoved(User provider) {
+        afterCommit(() -> listingGeoIndex.relocateProvider(provider));
+    }
+
+    public void categoryChanged(ServiceCategory category) {
+        afterCommit(() -> suggestionIndex.categoryChanged(category));
+    }
+
+    public void categoryDeleted(Long categoryId) {
+        afterCommit(() -> suggestionIndex.categoryDeleted(categoryId));
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.backend.services;
+
+import com.example.backend.dto.SearchCacheStats;
+import com.example.backend.utility.GeoUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-evicting cache of search candidates keyed by category and the geo-cell the
+ * customer searched from. An entry holds every listing that can make the first results from
+ * any point of the cell, gathered around the cell's centre; distances, the radius and the
+ * order are then worked out from the customer's own position. When a listing appears, moves
+ * or disappears, only entries of its category whose reach covers the listing's position (or
+ * that already hold it) are dropped.
+ */
+@Component
+public class SearchResultCache {
+
+    @Value("${search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.cache.cell-degrees:0.005}")
+    private double cellDegrees;
+
+    // grid width in cells; columns wrap at the antimeridian as in ListingGeoIndex
+    private long columns;
+
+    @Value("${search.cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${search.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<Key, CachedCandidates> pages = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public record Key(Long categoryId, long row, long col, Double radiusKm, String query, boolean relevance,
+                      int size) {
+    }
+
+    private record CachedCandidates(Set<Long> listingIds, Long categoryId, double lat, double lng,
+                                    double reachKm, long expiresAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        columns = (long) Math.ceil(360 / cellDegrees - 1e-9);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Key key(Long categoryId, double lat, double lng, Double radiusKm, String query, boolean relevance,
+                   int size) {
+        return new Key(categoryId, cellRow(lat), cellCol(lng), radiusKm, query, relevance, size);
+    }
+
+    // Centre of the key's cell: the point candidates are gathered around
+    public double[] center(Key key) {
+        return new double[]{(key.row() + 0.5) * cellDegrees - 90, (key.col() + 0.5) * cellDegrees - 180};
+    }
+
+    // Farthest a point of the key's cell lies from its centre, so also the most any distance
+    // measured from the centre can differ from the one measured by a customer in the cell
+    public double cellRadiusKm(Key key) {
+        double[] center = center(key);
+        double half = cellDegrees / 2;
+        return Math.max(
+                GeoUtil.distanceKm(center[0], center[1], center[0] - half, center[1] - half),
+                GeoUtil.distanceKm(center[0], center[1], center[0] + half, center[1] - half));
+    }
+
+    // Read before computing a miss and hand back to put(), so a page computed across a change is not stored
+    public long generation() {
+        return generation.get();
+    }
+
+    public synchronized Set<Long> get(Key key) {
+        CachedCandidates cached = pages.get(key);
+        if (cached != null && cached.expiresAt() < System.currentTimeMillis()) {
+            pages.remove(key);
+            expirations.incrementAndGet();
+            cached = null;
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached.listingIds();
+    }
+
+    // reachKm: distance from the cell's centre within which every listing was gathered, infinite for all of them
+    public synchronized void put(Key key, Set<Long> listingIds, double reachKm, long seenGeneration) {
+        if (seenGeneration != generation.get()) return;
+
+        double[] center = center(key);
+        pages.put(key, new CachedCandidates(Set.copyOf(listingIds), key.categoryId(), center[0], center[1], reachKm,
+                System.currentTimeMillis() + ttlSeconds * 1000));
+
+        Iterator<CachedCandidates> eldest = pages.values().iterator();
+        while (pages.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // A listing of this category entered or left the given position
+    public synchronized void invalidate(Long categoryId, double lat, double lng, Long listingId) {
+        generation.incrementAndGet();
+
+        Iterator<CachedCandidates> it = pages.values().iterator();
+        while (it.hasNext()) {
+            CachedCandidates cached = it.next();
+            if (cached.categoryId() != null && !cached.categoryId().equals(categoryId)) continue;
+
+            if (cached.listingIds().contains(listingId)
+                    || GeoUtil.distanceKm(cached.lat(), cached.lng(), lat, lng) <= cached.reachKm()) {
+                it.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized SearchCacheStats stats() {
+        long h = hits.get();
+        long m = misses.get();
+        return new SearchCacheStats(
+                pages.size(), h, m,
+                h + m == 0 ? 0 : (double) h / (h + m),
+                evictions.get(), expirations.get(), invalidations.get(),
+                cellDegrees);
+    }
+
+    private long cellRow(double lat) {
+        return (long) Math.floor((lat + 90) / cellDegrees);
+    }
+
+    private long cellCol(double lng) {
+        return Math.floorMod((long) Math.floor((lng + 180) / cellDegrees), columns);
+    }
+}
@@ -1,20 +1,364 @@
 package com.example.backend.services;
 
-import com.example.backend.entity.Listing;
+import com.example.backend.dto.BatchSearchRequest;
+import com.example.backend.dto.CategorySearchResult;
+import com.example.backend.dto.ListingSearchResult;
+import com.example.backend.dto.PageResponse;
+import com.example.backend.dto.SearchCacheStats;
+import com.example.backend.dto.SearchRequest;
+import com.example.backend.dto.Suggestion;
 import com.example.backend.repositories.ListingRepository;
+import com.example.backend.utility.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SearchService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int AVAILABILITY_BATCH = 50;
+    private static final int DEFAULT_SUGGESTIONS = 8;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_BATCH_CATEGORIES = 20;
+
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble(Ranked::score).reversed()
+            .thenComparing(r -> r.hit().listingId());
+
     private final ListingRepository listingRepository;
+    private final ListingGeoIndex listingGeoIndex;
+    private final SearchResultCache searchResultCache;
+    private final ProviderAvailabilityService providerAvailabilityService;
+    private final ListingTextIndex listingTextIndex;
+    private final ListingScoreBoard listingScoreBoard;
+    private final SuggestionIndex suggestionIndex;
+
+    // relevance ranking scores only this many of the nearest matches
+    @Value("${search.ranking.candidate-pool:200}")
+    private int candidatePool;
+
+    // value is a distance (km) or a relevance score depending on the sort
+    private record Cursor(double value, Long listingId) {
+    }
+
+    private record Ranked(ListingGeoIndex.Hit hit, double score) {
+    }
+
+//     Find nearest listings based on user coordinates, one keyset page at a time
+    public PageResponse<ListingSearchResult> findNearestListings(SearchRequest req) {
+        if (req.getLat() == null || req.getLng() == null) {
+            throw new RuntimeException("lat and lng are required");
+        }
+        if (req.getCategoryId() == null && (req.getQ() == null || req.getQ().isBlank())) {
+            throw new RuntimeException("categoryId or q is required");
+        }
+        if (req.getRadiusKm() != null && req.getRadiusKm() <= 0) {
+            throw new RuntimeException("radiusKm must be positive");
+        }
+        if (req.getTimeSlot() != null && req.getDate() == null) {
+            throw new RuntimeException("timeSlot requires a date");
+        }
+        if (req.getSort() != null && !req.getSort().equals("distance") && !req.getSort().equals("relevance")) {
+            throw new RuntimeException("sort must be distance or relevance");
+        }
+        int size = pageSize(req.getSize());
+        Cursor after = req.getCursor() != null ? decodeCursor(req.getCursor()) : null;
+        Set<Long> matches = req.getQ() != null && !req.getQ().isBlank() ? listingTextIndex.match(req.getQ()) : null;
+
+        // availability changes with every booking, so those searches are never cached; distance cursors
+        // are measured from the customer's own position, so later distance pages are not shared either
+        if (!searchResultCache.isEnabled() || req.getDate() != null || (after != null && !isRelevance(req))) {
+            return search(req.getLat(), req.getLng(), req, matches, after, size);
+        }
+
+        // everyone inside one cache cell shares the candidates; distances are measured from their own position
+        SearchResultCache.Key key = searchResultCache.key(
+                req.getCategoryId(), req.getLat(), req.getLng(), req.getRadiusKm(),
+                normalizedQuery(req.getQ()), isRelevance(req), size);
+        Set<Long> candidates = searchResultCache.get(key);
+        if (candidates == null) {
+            candidates = cacheCandidates(key, req.getCategoryId(), req.getRadiusKm(), matches,
+                    isRelevance(req) ? candidatePool : size + 1);
+        }
+        return search(req.getLat(), req.getLng(), req, candidates, after, size);
+    }
+
+    // Checked before a batch response starts streaming, so bad input still gets an error status
+    public void validateBatch(BatchSearchRequest req) {
+        if (req.getLat() == null || req.getLng() == null) {
+            throw new RuntimeException("lat and lng are required");
+        }
+        if (req.getCategoryIds() == null || req.getCategoryIds().isEmpty()) {
+            throw new RuntimeException("categoryIds is required");
+        }
+        if (req.getRadiusKm() != null && req.getRadiusKm() <= 0) {
+            throw new RuntimeException("radiusKm must be positive");
+        }
+        if (req.getCategoryIds().stream().filter(Objects::nonNull).distinct().count() > MAX_BATCH_CATEGORIES) {
+            throw new RuntimeException("At most " + MAX_BATCH_CATEGORIES + " categories per batch");
+        }
+        pageSize(req.getSize());
+    }
+
+    // First page of each category for one location, handed to the sink as each becomes ready:
+    // categories with cached candidates after one hydration query, the rest after shared ring
+    // walks over all of them and a second one
+    public void batchSearch(BatchSearchRequest req, Consumer<CategorySearchResult> sink) {
+        validateBatch(req);
+        List<Long> categoryIds = req.getCategoryIds().stream().filter(Objects::nonNull).distinct().toList();
+        int size = pageSize(req.getSize());
+
+        double lat = req.getLat();
+        double lng = req.getLng();
+        Double radiusKm = req.getRadiusKm();
+        if (!searchResultCache.isEnabled()) {
+            sendPages(listingGeoIndex.nearestPerCategory(lat, lng, categoryIds, radiusKm, size + 1), size, sink);
+            return;
+        }
+
+        Map<Long, List<ListingGeoIndex.Hit>> ready = new LinkedHashMap<>();
+        Map<Long, SearchResultCache.Key> misses = new LinkedHashMap<>();
+        for (Long categoryId : categoryIds) {
+            SearchResultCache.Key key = searchResultCache.key(categoryId, lat, lng, radiusKm, null, false, size);
+            Set<Long> candidates = searchResultCache.get(key);
+            if (candidates != null) {
+                ready.put(categoryId, listingGeoIndex.nearestAmong(candidates, lat, lng, categoryId, radiusKm, null, size + 1));
+            } else {
+                misses.put(categoryId, key);
+            }
+        }
+        sendPages(ready, size, sink);
+        if (misses.isEmpty()) return;
+
+        Map<Long, List<ListingGeoIndex.Hit>> computed = new LinkedHashMap<>();
+        cacheCandidates(misses, radiusKm, size + 1).forEach((categoryId, candidates) -> computed.put(categoryId,
+                listingGeoIndex.nearestAmong(candidates, lat, lng, categoryId, radiusKm, null, size + 1)));
+        sendPages(computed, size, sink);
+    }
+
+    // Typeahead completions for what the customer has typed so far; served from memory only
+    public List<Suggestion> suggest(String q, Integer limit) {
+        if (limit != null && limit <= 0) throw new RuntimeException("limit must be positive");
+        int max = limit == null ? DEFAULT_SUGGESTIONS : Math.min(limit, MAX_SUGGESTIONS);
+        return suggestionIndex.complete(q, max);
+    }
+
+    public SearchCacheStats getCacheStats() {
+        return searchResultCache.stats();
+    }
+
+    // matches, when set, restricts the search to those listings (text matches or cached candidates)
+    private PageResponse<ListingSearchResult> search(double lat, double lng, SearchRequest req, Set<Long> matches,
+                                                     Cursor after, int size) {
+        // one extra hit tells whether another page exists
+        List<ListingGeoIndex.Hit> hits;
+        String nextCursor = null;
+        if (isRelevance(req)) {
+            List<Ranked> ranked = ranked(lat, lng, req, matches, after, size + 1);
+            if (ranked.size() > size) {
+                ranked = ranked.subList(0, size);
+                Ranked last = ranked.get(size - 1);
+                nextCursor = CursorCodec.encode(last.score(), last.hit().listingId());
+            }
+            hits = ranked.stream().map(Ranked::hit).toList();
+        } else {
+            ListingGeoIndex.Hit afterHit = after != null ? new ListingGeoIndex.Hit(after.listingId(), null, after.value()) : null;
+            hits = req.getDate() == null
+                    ? nearest(lat, lng, req, matches, afterHit, size + 1)
+                    : nearestAvailable(lat, lng, req, matches, afterHit, size + 1);
+            if (hits.size() > size) {
+                hits = hits.subList(0, size);
+                nextCursor = distanceCursor(hits);
+            }
+        }
+
+        return new PageResponse<>(toItems(hits, findResults(hits)), nextCursor);
+    }
+
+    // Gathers around the cell's centre every listing that can be among the first `limit` seen from
+    // anywhere in the cell, and caches them. A customer is at most cellRadiusKm from the centre, so
+    // their limit-th nearest is within the centre's limit-th distance plus one cell radius, and lies
+    // within that distance plus two cell radii of the centre.
+    private Set<Long> cacheCandidates(SearchResultCache.Key key, Long categoryId, Double radiusKm,
+                                      Set<Long> matches, int limit) {
+        long generation = searchResultCache.generation();
+        double[] center = searchResultCache.center(key);
+        double cellKm = searchResultCache.cellRadiusKm(key);
+        Double reachKm = radiusKm != null ? radiusKm + cellKm : null;
+
+        List<ListingGeoIndex.Hit> hits = nearest(center[0], center[1], categoryId, reachKm, matches, null, limit);
+        if (hits.size() == limit) {
+            double nearestKm = hits.get(limit - 1).distanceKm() + 2 * cellKm;
+            reachKm = reachKm != null ? Math.min(reachKm, nearestKm) : nearestKm;
+            hits = nearest(center[0], center[1], categoryId, reachKm, matches, null, Integer.MAX_VALUE);
+        }
+
+        Set<Long> ids = hits.stream().map(ListingGeoIndex.Hit::listingId).collect(Collectors.toSet());
+        searchResultCache.put(key, ids, reachKm != null ? reachKm : Double.POSITIVE_INFINITY, generation);
+        return ids;
+    }
+
+    // The same for several categories of one cell, each step a single ring walk over all of them
+    private Map<Long, Set<Long>> cacheCandidates(Map<Long, SearchResultCache.Key> keys, Double radiusKm, int limit) {
+        long generation = searchResultCache.generation();
+        SearchResultCache.Key any = keys.values().iterator().next();
+        double[] center = searchResultCache.center(any);
+        double cellKm = searchResultCache.cellRadiusKm(any);
+        double maxReachKm = radiusKm != null ? radiusKm + cellKm : Double.POSITIVE_INFINITY;
+
+        Map<Long, List<ListingGeoIndex.Hit>> nearest = listingGeoIndex.nearestPerCategory(
+                center[0], center[1], keys.keySet(), radiusKm != null ? maxReachKm : null, limit);
+        Map<Long, Double> reachKm = new HashMap<>();
+        nearest.forEach((categoryId, hits) -> reachKm.put(categoryId, hits.size() < limit
+                ? maxReachKm
+                : Math.min(maxReachKm, hits.get(limit - 1).distanceKm() + 2 * cellKm)));
+
+        // categories with a full first pass widen to their own reach; one walk covers the widest
+        List<Long> widened = nearest.keySet().stream().filter(id -> nearest.get(id).size() == limit).toList();
+        if (!widened.isEmpty()) {
+            double widestKm = widened.stream().mapToDouble(reachKm::get).max().orElseThrow();
+            listingGeoIndex.nearestPerCategory(center[0], center[1], widened, widestKm, Integer.MAX_VALUE)
+                    .forEach((categoryId, hits) -> nearest.put(categoryId, hits.stream()
+                            .filter(hit -> hit.distanceKm() <= reachKm.get(categoryId))
+                            .toList()));
+        }
+
+        Map<Long, Set<Long>> candidates = new LinkedHashMap<>();
+        keys.forEach((categoryId, key) -> {
+            Set<Long> ids = nearest.get(categoryId).stream()
+                    .map(ListingGeoIndex.Hit::listingId)
+                    .collect(Collectors.toSet());
+            searchResultCache.put(key, ids, reachKm.get(categoryId), generation);
+            candidates.put(categoryId, ids);
+        });
+        return candidates;
+    }
+
+    // First distance pages of several categories, hydrated with one query and handed over in order
+    private void sendPages(Map<Long, List<ListingGeoIndex.Hit>> hitsByCategory, int size,
+                           Consumer<CategorySearchResult> sink) {
+        if (hitsByCategory.isEmpty()) return;
+        Map<Long, ListingSearchResult> results = findResults(
+                hitsByCategory.values().stream().flatMap(List::stream).toList());
+
+        hitsByCategory.forEach((categoryId, hits) -> {
+            String nextCursor = null;
+            if (hits.size() > size) {
+                hits = hits.subList(0, size);
+                nextCursor = distanceCursor(hits);
+            }
+            sink.accept(new CategorySearchResult(categoryId, toItems(hits, results), nextCursor));
+        });
+    }
+
+    private static String distanceCursor(List<ListingGeoIndex.Hit> page) {
+        ListingGeoIndex.Hit last = page.get(page.size() - 1);
+        return CursorCodec.encode(last.distanceKm(), last.listingId());
+    }
+
+    // One query for every hit, whatever page or category it belongs to
+    private Map<Long, ListingSearchResult> findResults(List<ListingGeoIndex.Hit> hits) {
+        if (hits.isEmpty()) return Map.of();
+        return listingRepository
+                .findSearchResultsByIds(hits.stream().map(ListingGeoIndex.Hit::listingId).toList())
+                .stream()
+                .collect(Collectors.toMap(ListingSearchResult::getId, Function.identity()));
+    }
+
+    private List<ListingSearchResult> toItems(List<ListingGeoIndex.Hit> hits, Map<Long, ListingSearchResult> results) {
+        return hits.stream()
+                .map(hit -> {
+                    ListingSearchResult res = results.get(hit.listingId());
+                    if (res != null) {
+                        res.setDistance(hit.distanceKm());
+                        res.setRating(listingScoreBoard.averageRating(hit.listingId()));
+                    }
+                    return res;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Scores the nearest candidates and orders them best first, resuming after the cursor
+    private List<Ranked> ranked(double lat, double lng, SearchRequest req, Set<Long> matches,
+                                Cursor after, int limit) {
+        List<ListingGeoIndex.Hit> pool = req.getDate() == null
+                ? nearest(lat, lng, req, matches, null, candidatePool)
+                : nearestAvailable(lat, lng, req, matches, null, candidatePool);
+
+        Ranked afterRanked = after != null ? new Ranked(new ListingGeoIndex.Hit(after.listingId(), null, 0), after.value()) : null;
+        return pool.stream()
+                .map(hit -> new Ranked(hit, listingScoreBoard.score(hit.listingId(), hit.distanceKm())))
+                .filter(r -> afterRanked == null || BEST_FIRST.compare(r, afterRanked) > 0)
+                .sorted(BEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    // Keyword searches rank just the matching listings; plain ones walk the category's grid
+    private List<ListingGeoIndex.Hit> nearest(double lat, double lng, SearchRequest req, Set<Long> matches,
+                                              ListingGeoIndex.Hit after, int limit) {
+        return nearest(lat, lng, req.getCategoryId(), req.getRadiusKm(), matches, after, limit);
+    }
+
+    private List<ListingGeoIndex.Hit> nearest(double lat, double lng, Long categoryId, Double radiusKm,
+                                              Set<Long> matches, ListingGeoIndex.Hit after, int limit) {
+        return matches != null
+                ? listingGeoIndex.nearestAmong(matches, lat, lng, categoryId, radiusKm, after, limit)
+                : listingGeoIndex.nearest(lat, lng, categoryId, radiusKm, after, limit);
+    }
+
+    // Walks the nearest hits in batches, keeping those whose provider is free; one availability pass per batch
+    private List<ListingGeoIndex.Hit> nearestAvailable(double lat, double lng, SearchRequest req, Set<Long> matches,
+                                                       ListingGeoIndex.Hit after, int limit) {
+        List<ListingGeoIndex.Hit> accepted = new ArrayList<>();
+        int batchSize = Math.max(limit, AVAILABILITY_BATCH);
+
+        while (accepted.size() < limit) {
+            List<ListingGeoIndex.Hit> batch = nearest(lat, lng, req, matches, after, batchSize);
+            if (batch.isEmpty()) break;
+
+            Set<Long> providerIds = batch.stream().map(ListingGeoIndex.Hit::providerId).collect(Collectors.toSet());
+            Set<Long> free = providerAvailabilityService.findProvidersFreeOn(providerIds, req.getDate(), req.getTimeSlot());
+
+            for (ListingGeoIndex.Hit hit : batch) {
+                if (free.contains(hit.providerId()) && accepted.size() < limit) {
+                    accepted.add(hit);
+                }
+            }
+            if (batch.size() < batchSize) break;
+            after = batch.get(batch.size() - 1);
+        }
+        return accepted;
+    }
+
+    private static String normalizedQuery(String q) {
+        return q == null || q.isBlank() ? null : String.join(" ", ListingTextIndex.tokenize(q));
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null) return DEFAULT_PAGE_SIZE;
+        if (size <= 0) throw new RuntimeException("size must be positive");
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private static boolean isRelevance(SearchRequest req) {
+        return "relevance".equals(req.getSort());
+    }
 
-//     Find nearest listings based on user coordinates
-    public List<Listing> findNearestListings(Double userLat, Double userLng, Long categoryId) {
-        return listingRepository.findNearestListings(userLat, userLng, categoryId);
+    private static Cursor decodeCursor(String cursor) {
+        String[] parts = CursorCodec.decode(cursor, 2);
+        try {
+            return new Cursor(Double.parseDouble(parts[0]), Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
 }
@@ -9,14 +9,18 @@ import java.util.List;
 @Service
 public class ServiceCategoryService {
     private final ServiceCategoryRepository repo;
-    public ServiceCategoryService(ServiceCategoryRepository repo) {
+    private final SearchIndexService searchIndexService;
+    public ServiceCategoryService(ServiceCategoryRepository repo, SearchIndexService searchIndexService) {
         this.repo = repo;
+        this.searchIndexService = searchIndexService;
     }
 
     public List<ServiceCategory> getAll() {
         return repo.findAll();
     }
     public ServiceCategory create(ServiceCategory c) {
-        return repo.save(c);
+        ServiceCategory saved = repo.save(c);
+        searchIndexService.categoryChanged(saved);
+        return saved;
     }
 }
\ No newline at end of file
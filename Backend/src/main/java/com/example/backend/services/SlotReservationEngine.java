@@ -0,0 +1,233 @@
+package com.example.backend.services;
+
+import com.example.backend.repositories.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory occupancy of (provider, date, slot), consulted before a booking reaches the
+ * database. Providers are spread over a fixed set of lock stripes, each owning an LRU of
+ * provider-days loaded lazily from the bookings table; concurrent requests for one slot
+ * serialize on that stripe and all but the first are rejected without a round-trip. A day
+ * keeps the slots claimed by transactions still running apart from the booked ones: a claim
+ * is rejected outright, while a booked slot is re-read from the table before rejecting, since
+ * another instance may have cancelled or expired that booking. Cancelled bookings give their
+ * slot back. An evicted day is simply reloaded, and the table's partial unique index over live
+ * bookings stays the final guard.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotReservationEngine {
+
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+
+    @Value("${booking.reservations.max-cached-days:20000}")
+    private int maxCachedDays;
+
+    private final Stripe[] stripes = createStripes();
+
+    private record ProviderDay(Long providerId, LocalDate date) {
+    }
+
+    // booked: live bookings as last read or committed here; held: claims of transactions still running
+    private static final class DaySlots {
+        final Set<String> booked = new HashSet<>();
+        final Set<String> held = new HashSet<>();
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<ProviderDay, DaySlots> days = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // Claims the slot for the surrounding transaction; it is given back unless the transaction commits
+    public void reserve(Long providerId, LocalDate date, String slot) {
+        if (!tryReserve(providerId, date, slot)) {
+            throw new RuntimeException("Time slot already booked");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    settle(providerId, Map.of(date, Set.of(slot)), status == STATUS_COMMITTED);
+                }
+            });
+        }
+    }
+
+    // Claims every slot or none of them, loading the provider's uncached days with one query;
+    // like reserve() the claims are given back unless the surrounding transaction commits
+    public void reserveAll(Long providerId, Map<LocalDate, Set<String>> slotsByDate) {
+        Stripe stripe = stripe(providerId);
+        stripe.lock.lock();
+        try {
+            Map<LocalDate, DaySlots> days = occupiedAll(stripe, providerId, slotsByDate.keySet());
+            List<LocalDate> stale = new ArrayList<>();
+            slotsByDate.forEach((date, slots) -> {
+                DaySlots day = days.get(date);
+                for (String slot : slots) {
+                    if (day.held.contains(slot)) {
+                        throw new RuntimeException("Time slot already booked: " + date + " " + slot);
+                    }
+                    if (day.booked.contains(slot) && !stale.contains(date)) stale.add(date);
+                }
+            });
+            if (!stale.isEmpty()) {
+                reload(providerId, stale, days);
+                slotsByDate.forEach((date, slots) -> {
+                    for (String slot : slots) {
+                        if (days.get(date).booked.contains(slot)) {
+                            throw new RuntimeException("Time slot already booked: " + date + " " + slot);
+                        }
+                    }
+                });
+            }
+            slotsByDate.forEach((date, slots) -> days.get(date).held.addAll(slots));
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    settle(providerId, slotsByDate, status == STATUS_COMMITTED);
+                }
+            });
+        }
+    }
+
+    // A booking holding the slot was cancelled; frees it once that change is committed
+    public void releaseAfterCommit(Long providerId, LocalDate date, String slot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(providerId, date, slot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(providerId, date, slot);
+            }
+        });
+    }
+
+    public boolean tryReserve(Long providerId, LocalDate date, String slot) {
+        Stripe stripe = stripe(providerId);
+        stripe.lock.lock();
+        try {
+            DaySlots day = occupied(stripe, new ProviderDay(providerId, date));
+            if (day.held.contains(slot)) return false;
+            if (day.booked.contains(slot)) {
+                reload(providerId, List.of(date), Map.of(date, day));
+                if (day.booked.contains(slot)) return false;
+            }
+            return day.held.add(slot);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void release(Long providerId, LocalDate date, String slot) {
+        Stripe stripe = stripe(providerId);
+        stripe.lock.lock();
+        try {
+            DaySlots day = stripe.days.get(new ProviderDay(providerId, date));
+            if (day != null) {
+                day.held.remove(slot);
+                day.booked.remove(slot);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // The claiming transaction ended: committed claims become bookings, the others are dropped
+    private void settle(Long providerId, Map<LocalDate, Set<String>> slotsByDate, boolean committed) {
+        Stripe stripe = stripe(providerId);
+        stripe.lock.lock();
+        try {
+            slotsByDate.forEach((date, slots) -> {
+                DaySlots day = stripe.days.get(new ProviderDay(providerId, date));
+                if (day == null) return;
+                day.held.removeAll(slots);
+                if (committed) day.booked.addAll(slots);
+            });
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Caller holds the stripe lock
+    private DaySlots occupied(Stripe stripe, ProviderDay day) {
+        DaySlots slots = stripe.days.get(day);
+        if (slots != null) return slots;
+
+        slots = new DaySlots();
+        for (Object[] row : bookingRepository.findBookedSlots(day.date(), List.of(day.providerId()))) {
+            slots.booked.add((String) row[1]);
+        }
+        stripe.days.put(day, slots);
+        trim(stripe);
+        return slots;
+    }
+
+    // Caller holds the stripe lock; the returned days stay valid while it is held
+    private Map<LocalDate, DaySlots> occupiedAll(Stripe stripe, Long providerId, Collection<LocalDate> dates) {
+        Map<LocalDate, DaySlots> result = new HashMap<>();
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate date : dates) {
+            DaySlots slots = stripe.days.get(new ProviderDay(providerId, date));
+            if (slots != null) result.put(date, slots);
+            else missing.add(date);
+        }
+        if (missing.isEmpty()) return result;
+
+        for (LocalDate date : missing) result.put(date, new DaySlots());
+        for (Object[] row : bookingRepository.findBookedSlotsOn(providerId, missing)) {
+            result.get((LocalDate) row[0]).booked.add((String) row[1]);
+        }
+        for (LocalDate date : missing) stripe.days.put(new ProviderDay(providerId, date), result.get(date));
+        trim(stripe);
+        return result;
+    }
+
+    // Replaces the booked slots of the given days with what the table holds now; caller holds the stripe lock
+    private void reload(Long providerId, List<LocalDate> dates, Map<LocalDate, DaySlots> days) {
+        for (LocalDate date : dates) days.get(date).booked.clear();
+        if (dates.size() == 1) {
+            for (Object[] row : bookingRepository.findBookedSlots(dates.get(0), List.of(providerId))) {
+                days.get(dates.get(0)).booked.add((String) row[1]);
+            }
+            return;
+        }
+        for (Object[] row : bookingRepository.findBookedSlotsOn(providerId, dates)) {
+            days.get((LocalDate) row[0]).booked.add((String) row[1]);
+        }
+    }
+
+    private void trim(Stripe stripe) {
+        Iterator<DaySlots> eldest = stripe.days.values().iterator();
+        while (stripe.days.size() > Math.max(1, maxCachedDays / STRIPES) && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private Stripe stripe(Long providerId) {
+        return stripes[Math.floorMod(providerId.hashCode(), STRIPES)];
+    }
+
+    private static Stripe[] createStripes() {
+        Stripe[] stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+        return stripes;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.backend.services;
+
+import com.example.backend.dto.Suggestion;
+import com.example.backend.entity.Listing;
+import com.example.backend.entity.ServiceCategory;
+import com.example.backend.repositories.ListingRepository;
+import com.example.backend.repositories.ServiceCategoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over category names and approved listing titles. Each name is stored in a sorted
+ * map once per word it contains (from that word to the end), so "clea" completes both
+ * "Cleaning" and "Deep cleaning". Categories and listings have a map each, so a lookup is one
+ * sub-map scan per map that stops as soon as it has enough.
+ */
+@Component
+@RequiredArgsConstructor
+public class SuggestionIndex {
+
+    public static final String CATEGORY = "CATEGORY";
+    public static final String LISTING = "LISTING";
+
+    private final ServiceCategoryRepository categoryRepository;
+    private final ListingRepository listingRepository;
+
+    private static final Comparator<Suggestion> BY_TEXT = Comparator
+            .comparing(Suggestion::getText, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Suggestion::getType)
+            .thenComparing(Suggestion::getId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Set<Suggestion>> categoryPhrases = new TreeMap<>();
+    private final TreeMap<String, Set<Suggestion>> listingPhrases = new TreeMap<>();
+    private final Map<String, Suggestion> byRef = new HashMap<>();
+
+    @PostConstruct
+    public void load() {
+        List<ServiceCategory> categories = categoryRepository.findAll();
+        List<Listing> listings = listingRepository.findByIsApprovedTrue();
+
+        lock.writeLock().lock();
+        try {
+            categoryPhrases.clear();
+            listingPhrases.clear();
+            byRef.clear();
+            categories.forEach(c -> put(new Suggestion(CATEGORY, c.getId(), c.getName())));
+            listings.forEach(l -> put(new Suggestion(LISTING, l.getId(), l.getTitle())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void categoryChanged(ServiceCategory category) {
+        replace(CATEGORY, category.getId(), category.getName());
+    }
+
+    public void categoryDeleted(Long categoryId) {
+        replace(CATEGORY, categoryId, null);
+    }
+
+    public void listingChanged(Listing listing) {
+        replace(LISTING, listing.getId(), Boolean.TRUE.equals(listing.getIsApproved()) ? listing.getTitle() : null);
+    }
+
+    public void listingDeleted(Long listingId) {
+        replace(LISTING, listingId, null);
+    }
+
+    // Categories first, then listing titles; each alphabetical by the matched phrase, same text only once
+    public List<Suggestion> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) return List.of();
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            collect(categoryPhrases, key, limit, suggestions);
+            collect(listingPhrases, key, limit, suggestions);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    // Appends distinct texts under the prefix until `into` holds limit suggestions; caller holds the read lock
+    private static void collect(TreeMap<String, Set<Suggestion>> phrases, String key, int limit, List<Suggestion> into) {
+        if (into.size() >= limit) return;
+        Set<String> seen = new HashSet<>();
+        for (Set<Suggestion> suggestions : phrases.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            for (Suggestion s : suggestions) {
+                if (seen.add(s.getText().toLowerCase(Locale.ROOT))) {
+                    into.add(s);
+                    if (into.size() >= limit) return;
+                }
+            }
+        }
+    }
+
+    private void replace(String type, Long id, String text) {
+        lock.writeLock().lock();
+        try {
+            Suggestion old = byRef.remove(type + ":" + id);
+            if (old != null) {
+                TreeMap<String, Set<Suggestion>> byPhrase = phrasesOf(type);
+                for (String phrase : phrases(old.getText())) {
+                    Set<Suggestion> suggestions = byPhrase.get(phrase);
+                    suggestions.remove(old);
+                    if (suggestions.isEmpty()) byPhrase.remove(phrase);
+                }
+            }
+            if (text != null) put(new Suggestion(type, id, text));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Suggestion suggestion) {
+        List<String> phrases = phrases(suggestion.getText());
+        if (phrases.isEmpty()) return;
+
+        byRef.put(suggestion.getType() + ":" + suggestion.getId(), suggestion);
+        TreeMap<String, Set<Suggestion>> byPhrase = phrasesOf(suggestion.getType());
+        for (String phrase : phrases) {
+            byPhrase.computeIfAbsent(phrase, k -> new TreeSet<>(BY_TEXT)).add(suggestion);
+        }
+    }
+
+    private TreeMap<String, Set<Suggestion>> phrasesOf(String type) {
+        return type.equals(CATEGORY) ? categoryPhrases : listingPhrases;
+    }
+
+    // "Deep Kitchen Cleaning" -> "deep kitchen cleaning", "kitchen cleaning", "cleaning"
+    private static List<String> phrases(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) return List.of();
+
+        List<String> phrases = new ArrayList<>();
+        phrases.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            phrases.add(normalized.substring(i + 1));
+        }
+        return phrases;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
@@ -4,6 +4,7 @@ import com.example.backend.dto.UpdateLocationRequest;
 import com.example.backend.dto.UpdateProfileRequest;
 import com.example.backend.dto.UserResponse;
 import com.example.backend.entity.User;
+import com.example.backend.enums.Role;
 import com.example.backend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,7 @@ public class UserProfileService {
 
     private final UserRepository userRepository;
     private final CloudinaryService cloudinaryService;
+    private final SearchIndexService searchIndexService;
 
     public User updateProfile(Long userId, UpdateProfileRequest request) {
         User user = userRepository.findById(userId)
@@ -36,7 +38,12 @@ public class UserProfileService {
         if (request.getPermanentLatitude() != null) user.setPermanentLatitude(request.getPermanentLatitude());
         if (request.getPermanentLongitude() != null) user.setPermanentLongitude(request.getPermanentLongitude());
         if (request.getPermanentAddress() != null) user.setPermanentAddress(request.getPermanentAddress());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+
+        if (saved.getRole() == Role.SERVICE_PROVIDER) {
+            searchIndexService.providerMoved(saved);
+        }
+        return saved;
     }
 
     public UserResponse getUserById(Long userId) {
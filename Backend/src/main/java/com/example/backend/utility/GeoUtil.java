@@ -0,0 +1,29 @@
+package com.example.backend.utility;
+
+public final class GeoUtil {
+
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    private GeoUtil() {
+    }
+
+    // Great-circle distance (haversine), stable for short distances unlike the acos form
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Shortest distance from a point to the meridian lying dLng degrees east or west of it
+    public static double distanceToMeridianKm(double lat, double dLng) {
+        if (dLng >= 90) {
+            // beyond a quarter turn the closest point of that meridian is the nearer pole
+            return EARTH_RADIUS_KM * Math.toRadians(90 - Math.abs(lat));
+        }
+        double s = Math.cos(Math.toRadians(lat)) * Math.sin(Math.toRadians(dLng));
+        return EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.abs(s)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Helpers for the comma separated slot lists stored in ProviderAvailability.timeSlots, and for their
+// bitmask form: slots on the 30-minute grid of a day, bit i being the interval starting i * 30 minutes
+public final class TimeSlots {
+
+    public static final int INTERVAL_MINUTES = 30;
+
+    private TimeSlots() {
+    }
+
+    public static List<String> parse(String csv) {
+        if (csv == null || csv.isBlank()) return List.of();
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    // Exact slot match; String.contains would accept "1:00 PM" inside "11:00 PM"
+    public static boolean contains(String csv, String slot) {
+        return slot != null && parse(csv).contains(slot.trim());
+    }
+
+    // Bit of a "09:30 AM" (or "21:30") label, -1 when it is not a time on the grid
+    public static int bit(String slot) {
+        if (slot == null) return -1;
+        int n = slot.length();
+        int i = skipSpaces(slot, 0);
+
+        int hours = 0;
+        int start = i;
+        while (i < n && i - start < 2 && Character.isDigit(slot.charAt(i))) hours = hours * 10 + slot.charAt(i++) - '0';
+        if (i == start || i >= n || slot.charAt(i++) != ':') return -1;
+
+        int minutes = 0;
+        start = i;
+        while (i < n && i - start < 2 && Character.isDigit(slot.charAt(i))) minutes = minutes * 10 + slot.charAt(i++) - '0';
+        if (i - start != 2 || minutes >= 60 || minutes % INTERVAL_MINUTES != 0) return -1;
+
+        i = skipSpaces(slot, i);
+        if (i == n) {
+            if (hours > 23) return -1;
+        } else {
+            if (i + 2 > n || Character.toUpperCase(slot.charAt(i + 1)) != 'M' || skipSpaces(slot, i + 2) != n) return -1;
+            char meridiem = Character.toUpperCase(slot.charAt(i));
+            if ((meridiem != 'A' && meridiem != 'P') || hours < 1 || hours > 12) return -1;
+            hours = hours % 12 + (meridiem == 'P' ? 12 : 0);
+        }
+        return (hours * 60 + minutes) / INTERVAL_MINUTES;
+    }
+
+    // "09:30 AM" style label of a bit
+    public static String label(int bit) {
+        int minutes = bit * INTERVAL_MINUTES;
+        int hours = minutes / 60;
+        return String.format("%02d:%02d %s", hours % 12 == 0 ? 12 : hours % 12, minutes % 60, hours < 12 ? "AM" : "PM");
+    }
+
+    // The grid label for a slot on the grid, so "9:00 am" and "09:00 AM" are stored alike; other text trimmed
+    public static String normalize(String slot) {
+        int bit = bit(slot);
+        return bit >= 0 ? label(bit) : slot == null ? null : slot.trim();
+    }
+
+    // Mask of every slot in the list, null when one of them is off the grid and only the text can hold it
+    public static Long encode(String csv) {
+        long mask = 0;
+        for (String slot : parse(csv)) {
+            int bit = bit(slot);
+            if (bit < 0) return null;
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    public static boolean contains(long mask, int bit) {
+        return bit >= 0 && (mask >>> bit & 1) != 0;
+    }
+
+    // Labels of the set bits, earliest first
+    public static List<String> labels(long mask) {
+        List<String> labels = new ArrayList<>(Long.bitCount(mask));
+        for (long m = mask; m != 0; m &= m - 1) labels.add(label(Long.numberOfTrailingZeros(m)));
+        return labels;
+    }
+
+    private static int skipSpaces(String s, int i) {
+        while (i < s.length() && s.charAt(i) == ' ') i++;
+        return i;
+    }
+}
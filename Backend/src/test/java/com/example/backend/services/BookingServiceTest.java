@@ -0,0 +1,183 @@
+package com.example.backend.services;
+
+import com.example.backend.dto.BookingPageRequest;
+import com.example.backend.dto.CustomerBookingResponse;
+import com.example.backend.dto.PageResponse;
+import com.example.backend.dto.ProviderBookingResponse;
+import com.example.backend.entity.Booking;
+import com.example.backend.entity.Listing;
+import com.example.backend.entity.User;
+import com.example.backend.enums.BookingStatus;
+import com.example.backend.enums.Role;
+import com.example.backend.repositories.BookingRepository;
+import com.example.backend.repositories.ListingRepository;
+import com.example.backend.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Counts the SQL statements Hibernate actually prepares while building a booking list page
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "booking.pending-expiry.enabled=false"
+})
+@Transactional
+class BookingServiceTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2026, 11, 2);
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void customerBookingsUseThreeQueriesWhateverTheCount(int count) {
+        User customer = user("customer");
+        List<User> providers = new ArrayList<>();
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User provider = user("provider " + i);
+            providers.add(provider);
+            listings.add(listing(provider, i));
+        }
+        for (int i = 0; i < count; i++) booking(customer, providers.get(i), listings.get(i), i);
+        startCounting();
+
+        List<CustomerBookingResponse> res = bookingService.getCustomerBookings(customer.getId(), page(count)).getItems();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(res).hasSize(count);
+        // newest booking date first
+        assertThat(res.get(0).getServiceName()).isEqualTo("Listing " + (count - 1));
+        assertThat(res.get(0).getProviderName()).isEqualTo("provider " + (count - 1));
+        assertThat(res.get(count - 1).getServiceName()).isEqualTo("Listing 0");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void providerBookingsUseThreeQueriesWhateverTheCount(int count) {
+        User provider = user("provider");
+        User customer = user("customer");
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < count; i++) listings.add(listing(provider, i));
+        for (int i = 0; i < count; i++) booking(customer, provider, listings.get(i), i);
+        startCounting();
+
+        List<ProviderBookingResponse> res = bookingService.getProviderBookings(provider.getId(), page(count)).getItems();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(res).hasSize(count);
+        assertThat(res).allSatisfy(r -> assertThat(r.getCustomerName()).isEqualTo("customer"));
+        assertThat(res.get(0).getPrice()).isEqualByComparingTo(BigDecimal.valueOf(count - 1));
+    }
+
+    @Test
+    void laterPagesUseThreeQueriesToo() {
+        User provider = user("provider");
+        User customer = user("customer");
+        for (int i = 0; i < 25; i++) booking(customer, provider, listing(provider, i), i);
+
+        BookingPageRequest req = page(10);
+        PageResponse<ProviderBookingResponse> first = bookingService.getProviderBookings(provider.getId(), req);
+        req.setCursor(first.getNextCursor());
+        startCounting();
+
+        PageResponse<ProviderBookingResponse> second = bookingService.getProviderBookings(provider.getId(), req);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(second.getItems()).hasSize(10);
+        assertThat(second.getItems().get(0).getBookingDate()).isEqualTo(FIRST_DATE.plusDays(14));
+        assertThat(second.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void missingListingIsReported() {
+        User customer = user("customer");
+        User provider = user("provider");
+        Listing listing = listing(provider, 0);
+        booking(customer, provider, listing, 0);
+        Listing gone = listing(provider, 1);
+        booking(customer, provider, gone, 1);
+        listingRepository.delete(gone);
+        startCounting();
+
+        assertThatThrownBy(() -> bookingService.getCustomerBookings(customer.getId(), page(2)))
+                .hasMessage("Listing not found");
+    }
+
+    // Writes the fixture and empties the persistence context, so the page is read from the database
+    private void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private static BookingPageRequest page(int size) {
+        BookingPageRequest req = new BookingPageRequest();
+        req.setSize(size);
+        return req;
+    }
+
+    private User user(String name) {
+        User u = new User();
+        u.setUserName(name);
+        u.setEmail(UUID.randomUUID() + "@test.local");
+        u.setPassword("x");
+        u.setRole(Role.CUSTOMER);
+        return userRepository.save(u);
+    }
+
+    private Listing listing(User provider, int i) {
+        Listing l = new Listing();
+        l.setProviderId(provider.getId());
+        l.setTitle("Listing " + i);
+        l.setPrice(BigDecimal.valueOf(i));
+        return listingRepository.save(l);
+    }
+
+    // booking i is on day i, so later bookings sort first
+    private Booking booking(User customer, User provider, Listing listing, int i) {
+        Booking b = new Booking();
+        b.setCustomerId(customer.getId());
+        b.setProviderId(provider.getId());
+        b.setListingId(listing.getId());
+        b.setBookingDate(FIRST_DATE.plusDays(i));
+        b.setTimeSlot("10:00 AM");
+        b.setStatus(BookingStatus.PENDING);
+        return bookingRepository.save(b);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.backend.services;
+
+import com.example.backend.repositories.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class SlotReservationEngineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 11, 2);
+
+    private BookingRepository bookingRepository;
+    private SlotReservationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findBookedSlots(any(), anyCollection())).thenReturn(List.of());
+        engine = new SlotReservationEngine(bookingRepository);
+        ReflectionTestUtils.setField(engine, "maxCachedDays", 20000);
+    }
+
+    @Test
+    void exactlyOneOfManyParallelBookingsForOneSlotWins() throws Exception {
+        int attempts = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    engine.reserve(7L, DATE, "10:00 AM");
+                    winners.incrementAndGet();
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(winners.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(attempts - 1);
+        // the provider's day is read from the database once, not per attempt
+        verify(bookingRepository, times(1)).findBookedSlots(any(), anyCollection());
+    }
+
+    @Test
+    void differentSlotsAndProvidersDoNotConflict() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (long provider = 1; provider <= 100; provider++) {
+            for (String slot : List.of("09:00 AM", "10:00 AM", "11:00 AM")) {
+                long p = provider;
+                futures.add(pool.submit(() -> engine.tryReserve(p, DATE, slot)));
+            }
+        }
+        for (Future<Boolean> f : futures) assertThat(f.get(30, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+    }
+
+    @Test
+    void slotsAlreadyInTheDatabaseAreRejected() {
+        when(bookingRepository.findBookedSlots(any(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, "09:00 AM"}));
+
+        assertThatThrownBy(() -> engine.reserve(3L, DATE, "09:00 AM"))
+                .hasMessage("Time slot already booked");
+        assertThat(engine.tryReserve(3L, DATE, "10:00 AM")).isTrue();
+    }
+
+    @Test
+    void releasedSlotCanBeReservedAgain() {
+        assertThat(engine.tryReserve(5L, DATE, "09:00 AM")).isTrue();
+        assertThat(engine.tryReserve(5L, DATE, "09:00 AM")).isFalse();
+
+        engine.release(5L, DATE, "09:00 AM");
+
+        assertThat(engine.tryReserve(5L, DATE, "09:00 AM")).isTrue();
+    }
+
+    @Test
+    void bookingCancelledOnAnotherInstanceIsReReadBeforeRejecting() {
+        when(bookingRepository.findBookedSlots(any(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{4L, "09:00 AM"}))
+                .thenReturn(List.of());
+        assertThat(engine.tryReserve(4L, DATE, "11:00 AM")).isTrue();
+
+        assertThat(engine.tryReserve(4L, DATE, "09:00 AM")).isTrue();
+        assertThat(engine.tryReserve(4L, DATE, "11:00 AM")).isFalse();
+        verify(bookingRepository, times(2)).findBookedSlots(any(), anyCollection());
+    }
+
+    @Test
+    void reservationIsGivenBackWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.reserve(9L, DATE, "09:00 AM");
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(engine.tryReserve(9L, DATE, "09:00 AM")).isTrue();
+    }
+}
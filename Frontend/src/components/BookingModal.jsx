@@ -98,7 +98,7 @@ const BookingModal = ({ isOpen, onClose, service, userId }) => {
                             {/* Service Info */}
                             <div className="flex gap-4">
                                 <div className="h-16 w-16 bg-gray-200 rounded-lg overflow-hidden flex-shrink-0">
-                                    <img src={service.images} alt={service.title} className="h-full w-full object-cover" />
+                                    <img src={service.thumbnail || service.images} alt={service.title} className="h-full w-full object-cover" />
                                 </div>
                                 <div>
                                     <h4 className="font-bold text-gray-900">{service.title}</h4>
@@ -411,7 +411,7 @@ const CustomerDashboard = () => {
                   <div className="h-56 overflow-hidden relative">
                     <img
                       src={
-                        service.images ||
+                        service.thumbnail ||
                         "https://via.placeholder.com/400x300?text=Service"
                       }
                       alt={service.title}
@@ -427,8 +427,14 @@ const CustomerDashboard = () => {
                     <h3 className="text-2xl font-black text-gray-900 mb-3">
                       {service.title}
                     </h3>
-                    <p className="text-gray-500 text-sm line-clamp-2 mb-6 font-medium leading-relaxed">
-                      {service.description}
+                    <p className="flex items-center gap-2 text-gray-500 text-sm mb-6 font-medium leading-relaxed">
+                      {service.providerName}
+                      {service.rating != null && (
+                        <span className="flex items-center gap-1 text-amber-500 font-bold">
+                          <Star size={14} className="fill-amber-400" />
+                          {service.rating.toFixed(1)}
+                        </span>
+                      )}
                     </p>
                     <div className="flex items-center gap-2 text-indigo-600/70 text-xs font-black uppercase tracking-tighter mb-6 bg-indigo-50/50 w-fit px-3 py-1.5 rounded-lg border border-indigo-100">
                       <MapPin size={14} />
@@ -19,6 +19,16 @@ export const updateProviderAvailability = async (providerId, day, timeSlots) =>
     }
 };
 
+/**
+ * Replace the whole weekly schedule in one request
+ * PUT /api/provider/availability/{providerId}/week
+ * days: { MONDAY: ["09:00 AM", "10:00 AM"], ... }; days left out have no slots
+ */
+export const updateWeeklyAvailability = async (providerId, days) => {
+    const response = await apiClient.put(`/provider/availability/${providerId}/week`, { days });
+    return response.data;
+};
+
 /**
  * Get availability for a specific day
  * GET /api/provider/availability/{providerId}?day=MONDAY
@@ -60,6 +70,44 @@ export const removeAvailabilitySlot = async (providerId, day, timeSlot) => {
     }
 };
 
+/**
+ * Override one date on top of the weekly template (holiday, extra hours)
+ * PUT /api/provider/availability/{providerId}/overrides/{date}
+ * override: { closed, addSlots: ["06:00 PM"], removeSlots: ["09:00 AM"] }
+ */
+export const saveAvailabilityOverride = async (providerId, date, override) => {
+    const response = await apiClient.put(`/provider/availability/${providerId}/overrides/${date}`, override);
+    return response.data;
+};
+
+/**
+ * Drop a date override; the weekly template applies again
+ * DELETE /api/provider/availability/{providerId}/overrides/{date}
+ */
+export const deleteAvailabilityOverride = async (providerId, date) => {
+    const response = await apiClient.delete(`/provider/availability/${providerId}/overrides/${date}`);
+    return response.data;
+};
+
+/**
+ * Slots offered on each date of a range, overrides applied
+ * GET /api/provider/availability/{providerId}/effective?from=2026-11-01&to=2026-11-30
+ */
+export const getEffectiveAvailability = async (providerId, from, to) => {
+    const response = await apiClient.get(`/provider/availability/${providerId}/effective`, { params: { from, to } });
+    return response.data;
+};
+
+/**
+ * Bookable slots per date, availability minus live bookings
+ * GET /api/customer/availability/{providerId}/free?from=2026-11-01&to=2026-11-30
+ * Returns [{ date, timeSlots }], one per date
+ */
+export const getFreeSlots = async (providerId, from, to) => {
+    const response = await apiClient.get(`/customer/availability/${providerId}/free`, { params: { from, to } });
+    return response.data;
+};
+
 /**
  * Customer view of provider availability (shows only available slots)
  * GET /api/customer/availability/{providerId}?day=MONDAY
@@ -87,13 +135,18 @@ export const getCustomerViewAvailability = async (providerId, day) => {
 
 // --- Booking APIs ---
 
+// Reuse one key (e.g. crypto.randomUUID()) across retries of the same booking; the server replays its first answer
+export const idempotencyHeaders = (idempotencyKey) =>
+    idempotencyKey ? { headers: { 'Idempotency-Key': idempotencyKey } } : {};
+
 /**
  * Create a new booking
  * POST /api/customer/bookings/{customerId}
  */
-export const createBooking = async (customerId, bookingData) => {
+export const createBooking = async (customerId, bookingData, idempotencyKey) => {
     try {
-        const response = await apiClient.post(`/customer/bookings/${customerId}`, bookingData);
+        const response = await apiClient.post(`/customer/bookings/${customerId}`, bookingData,
+            idempotencyHeaders(idempotencyKey));
         return response.data;
     } catch (error) {
         console.error("Failed to create booking", error);
@@ -102,13 +155,41 @@ export const createBooking = async (customerId, bookingData) => {
 };
 
 /**
- * Fetch bookings for a provider
- * GET /api/provider/bookings/{providerId}
+ * Book several slots at once, all or nothing
+ * POST /api/customer/bookings/{customerId}/series
+ * body: { providerId, listingId, slots: [{ bookingDate, timeSlot }] }
+ *   or: { providerId, listingId, startDate, timeSlot, occurrences, everyWeeks }
+ */
+export const createBookingSeries = async (customerId, seriesData, idempotencyKey) => {
+    try {
+        const response = await apiClient.post(`/customer/bookings/${customerId}/series`, seriesData,
+            idempotencyHeaders(idempotencyKey));
+        return response.data;
+    } catch (error) {
+        console.error("Failed to create booking series", error);
+        throw error;
+    }
+};
+
+// Follows nextCursor until the last page and returns every item
+const allPages = async (loadPage) => {
+    const items = [];
+    let cursor;
+    do {
+        const page = await loadPage({ cursor, size: 100 });
+        items.push(...(page.items || []));
+        cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+};
+
+/**
+ * Fetch all bookings for a provider, newest first
+ * GET /api/provider/bookings/{providerId}?size=100, one request per page
  */
 export const getBookingsByProvider = async (providerId) => {
     try {
-        const response = await apiClient.get(`/provider/bookings/${providerId}`);
-        return response.data || [];
+        return await allPages((params) => getProviderBookingsPage(providerId, params));
     } catch (error) {
         console.error("Failed to fetch provider bookings", error);
         return [];
@@ -116,19 +197,51 @@ export const getBookingsByProvider = async (providerId) => {
 };
 
 /**
- * Fetch bookings for a customer
- * GET /api/customer/bookings/{customerId}
+ * One page of a provider's bookings, newest first
+ * GET /api/provider/bookings/{providerId}?status=&from=&to=&cursor=&size=
+ * Returns { items, nextCursor }; pass nextCursor back to load the next page
+ */
+export const getProviderBookingsPage = async (providerId, { status, from, to, cursor, size } = {}) => {
+    const response = await apiClient.get(`/provider/bookings/${providerId}`, {
+        params: { status, from, to, cursor, size }
+    });
+    return response.data;
+};
+
+/**
+ * Month calendar for a provider dashboard
+ * GET /api/provider/bookings/{providerId}/calendar?month=2026-11
+ * Returns [{ date, offeredSlots, bookedSlots, statusCounts: { PENDING: n, ... } }], one per day
+ */
+export const getProviderCalendar = async (providerId, month) => {
+    const response = await apiClient.get(`/provider/bookings/${providerId}/calendar`, { params: { month } });
+    return response.data;
+};
+
+/**
+ * Fetch all bookings for a customer, newest first
+ * GET /api/customer/bookings/{customerId}?size=100, one request per page
  */
 export const getBookingsByCustomer = async (customerId) => {
     try {
-        const response = await apiClient.get(`/customer/bookings/${customerId}`);
-        return response.data || [];
+        return await allPages((params) => getCustomerBookingsPage(customerId, params));
     } catch (error) {
         console.error("Failed to fetch customer bookings", error);
         return [];
     }
 };
 
+/**
+ * One page of a customer's bookings, newest first
+ * GET /api/customer/bookings/{customerId}?status=&from=&to=&cursor=&size=
+ */
+export const getCustomerBookingsPage = async (customerId, { status, from, to, cursor, size } = {}) => {
+    const response = await apiClient.get(`/customer/bookings/${customerId}`, {
+        params: { status, from, to, cursor, size }
+    });
+    return response.data;
+};
+
 // --- Booking Lifecycle Actions ---
 
 /**
@@ -187,6 +300,21 @@ export const customerCancelBooking = async (bookingId) => {
     }
 };
 
+/**
+ * Confirm, complete or cancel many bookings of a provider at once
+ * POST /api/provider/bookings/{providerId}/bulk/{action}   action: confirm | complete | cancel
+ * Returns [{ bookingId, updated, status, message }] in the order given
+ */
+export const bulkBookingAction = async (providerId, action, bookingIds) => {
+    try {
+        const response = await apiClient.post(`/provider/bookings/${providerId}/bulk/${action}`, { bookingIds });
+        return response.data;
+    } catch (error) {
+        console.error(`Failed to ${action} bookings`, error);
+        throw error;
+    }
+};
+
 // Aliases for retro-compatibility where applicable or to be replaced in next steps
 export const getServiceSlots = getCustomerViewAvailability;
 export const updateServiceSlots = (serviceId, date, slots) => {
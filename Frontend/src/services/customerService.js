@@ -1,8 +1,34 @@
 import apiClient from "../api/client";
 
-export const searchProviders = async (lat, lng, categoryId) => {
+export const searchProviders = async (lat, lng, categoryId, radiusKm) => {
+    const page = await searchProvidersPage({ lat, lng, categoryId, radiusKm });
+    return page.items;
+};
+
+// One page of results; pass the returned nextCursor back to load the next page
+export const searchProvidersPage = async ({ lat, lng, categoryId, radiusKm, cursor, size }) => {
     const res = await apiClient.get('/customer/search', {
-        params: { lat, lng, categoryId }
+        params: { lat, lng, categoryId, radiusKm, cursor, size }
     });
     return res.data;
 };
+
+// Typeahead: [{ type: 'CATEGORY' | 'LISTING', id, text }] for what was typed so far
+export const suggest = async (q, limit) => {
+    const res = await apiClient.get('/customer/search/suggest', { params: { q, limit } });
+    return res.data;
+};
+
+// First page of several category tiles in one request: { [categoryId]: { items, nextCursor } }
+export const searchCategories = async ({ lat, lng, categoryIds, radiusKm, size }) => {
+    const res = await apiClient.get('/customer/search/batch', {
+        params: { lat, lng, categoryIds: categoryIds.join(','), radiusKm, size },
+        responseType: 'text'
+    });
+    const pages = {};
+    res.data.split('\n').filter(Boolean).forEach(line => {
+        const page = JSON.parse(line);
+        pages[page.categoryId] = page;
+    });
+    return pages;
+};
@@ -1,11 +1,12 @@
 import api from '../api/client';
+import { idempotencyHeaders } from './bookingService';
 
-export const submitReview = async (bookingId, rating, comment) => {
+export const submitReview = async (bookingId, rating, comment, idempotencyKey) => {
     const response = await api.post('/customer/reviews', {
         bookingId,
         rating,
         comment
-    });
+    }, idempotencyHeaders(idempotencyKey));
     return response.data;
 };
 